@@ -0,0 +1,74 @@
+package com.db.utility.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * The {@code BenchmarkConfig} class points the library at a benchmark database.
+ * 
+ * <p>The library reads {@code application.properties} from the context class loader once
+ * per JVM. JMH runs every parameter combination in a fresh fork, so a benchmark writes the
+ * file for its database into a temporary directory and opens the first connection with
+ * that directory on the context class path.</p>
+ */
+public final class BenchmarkConfig {
+
+	private BenchmarkConfig() {
+	}
+
+	/**
+     * Runs {@code action} with an {@code application.properties} holding {@code props}
+     * visible to the library.
+     */
+	public static void withProperties(Properties props, Runnable action) throws IOException {
+		Path dir = Files.createTempDirectory("db-bench");
+		try (OutputStream out = Files.newOutputStream(dir.resolve("application.properties"))) {
+			props.store(out, null);
+		}
+
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, previous)) {
+			thread.setContextClassLoader(loader);
+			action.run();
+		} finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	/**
+     * Returns the properties of the in-process fake driver.
+     * 
+     * @param latencyMicros The connect and query latency of the driver.
+     * @param maxPoolSize The maximum pool size.
+     */
+	public static Properties fake(long latencyMicros, int maxPoolSize) throws SQLException {
+		return pool(FakeDriver.register("bench", latencyMicros, latencyMicros), maxPoolSize);
+	}
+
+	/**
+     * Returns the properties of an embedded in-memory H2 database.
+     * 
+     * @param maxPoolSize The maximum pool size.
+     */
+	public static Properties h2(int maxPoolSize) throws ClassNotFoundException {
+		Class.forName("org.h2.Driver");
+		return pool("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1", maxPoolSize);
+	}
+
+	private static Properties pool(String url, int maxPoolSize) {
+		Properties props = new Properties();
+		props.setProperty("DB_URL", url);
+		props.setProperty("DB_USER", "sa");
+		props.setProperty("DB_PASS", "");
+		props.setProperty("POOL_MIN_IDLE", "0");
+		props.setProperty("POOL_MAX_SIZE", String.valueOf(maxPoolSize));
+		return props;
+	}
+}
@@ -0,0 +1,159 @@
+package com.db.utility.bench;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * The {@code FakeDriver} class is an in-process JDBC driver for benchmarks.
+ * 
+ * <p>It accepts URLs starting with {@code jdbc:fake:<name>:} and hands out connections
+ * whose methods do nothing, so a benchmark measures the library rather than a database.
+ * Opening a connection and executing a statement can be given an artificial latency to
+ * stand in for the network round trip.</p>
+ */
+public final class FakeDriver implements Driver {
+
+	private final String prefix;
+	private final long connectLatencyNanos;
+	private final long queryLatencyNanos;
+
+	private FakeDriver(String name, long connectLatencyMicros, long queryLatencyMicros) {
+		this.prefix = "jdbc:fake:" + name + ":";
+		this.connectLatencyNanos = TimeUnit.MICROSECONDS.toNanos(connectLatencyMicros);
+		this.queryLatencyNanos = TimeUnit.MICROSECONDS.toNanos(queryLatencyMicros);
+	}
+
+	/**
+     * Registers a driver without latency accepting URLs starting with {@code jdbc:fake:<name>:}.
+     * 
+     * @return The JDBC URL of a database served by the new driver.
+     */
+	public static String register(String name) throws SQLException {
+		return register(name, 0, 0);
+	}
+
+	/**
+     * Registers a driver accepting URLs starting with {@code jdbc:fake:<name>:}.
+     * 
+     * @param connectLatencyMicros How long opening a connection takes.
+     * @param queryLatencyMicros How long executing a statement takes.
+     * 
+     * @return The JDBC URL of a database served by the new driver.
+     */
+	public static String register(String name, long connectLatencyMicros, long queryLatencyMicros) throws SQLException {
+		FakeDriver driver = new FakeDriver(name, connectLatencyMicros, queryLatencyMicros);
+		DriverManager.registerDriver(driver);
+		return driver.prefix + "db";
+	}
+
+	@Override
+	public Connection connect(String url, Properties info) throws SQLException {
+		if (!acceptsURL(url))
+			return null;
+
+		pause(connectLatencyNanos);
+		return proxy(Connection.class, "FakeConnection[" + url + "]");
+	}
+
+	private <T> T proxy(Class<T> type, String name) {
+		return type.cast(Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "toString":
+							return name;
+						case "getAutoCommit":
+						case "isValid":
+							return true;
+						case "createStatement":
+							return proxy(Statement.class, "FakeStatement");
+						case "prepareStatement":
+							return proxy(PreparedStatement.class, "FakeStatement[" + args[0] + "]");
+						case "execute":
+						case "executeQuery":
+						case "executeUpdate":
+							pause(queryLatencyNanos);
+							return method.getReturnType() == ResultSet.class ? resultSet() : defaultValue(method);
+						default:
+							return defaultValue(method);
+					}
+				}));
+	}
+
+	/**
+     * Returns a result set holding a single row.
+     */
+	private ResultSet resultSet() {
+		int[] rows = { 1 };
+		return (ResultSet) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, method, args) -> {
+					if (method.getName().equals("next"))
+						return rows[0]-- > 0;
+					if (method.getName().equals("equals"))
+						return proxy == args[0];
+					return defaultValue(method);
+				});
+	}
+
+	private static Object defaultValue(Method method) {
+		Class<?> type = method.getReturnType();
+		if (type == boolean.class)
+			return false;
+		if (type == int.class)
+			return 0;
+		if (type == long.class)
+			return 0L;
+		return null;
+	}
+
+	private static void pause(long nanos) {
+		if (nanos > 0)
+			LockSupport.parkNanos(nanos);
+	}
+
+	@Override
+	public boolean acceptsURL(String url) {
+		return url != null && url.startsWith(prefix);
+	}
+
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+		return new DriverPropertyInfo[0];
+	}
+
+	@Override
+	public int getMajorVersion() {
+		return 1;
+	}
+
+	@Override
+	public int getMinorVersion() {
+		return 0;
+	}
+
+	@Override
+	public boolean jdbcCompliant() {
+		return false;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+}
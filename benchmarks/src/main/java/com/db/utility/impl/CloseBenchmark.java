@@ -0,0 +1,66 @@
+package com.db.utility.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the varargs {@link ResUtil#close(AutoCloseable...)} with its fixed-arity
+ * overloads. Run it with the allocation profiler, through {@link #main(String[])} or
+ * {@code java -jar target/benchmarks.jar CloseBenchmark -prof gc}, and compare the
+ * {@code gc.alloc.rate.norm} column: the overloads allocate nothing per call.
+ * 
+ * <p>The varargs calls pass an explicit array, as the compiler does for a varargs call
+ * site, since a plain {@code close(a, b, c)} now resolves to the overload.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloseBenchmark {
+
+	private final AutoCloseable rs = () -> { };
+	private final AutoCloseable pstm = () -> { };
+	private final AutoCloseable conn = () -> { };
+
+	@Benchmark
+	public void varargsOne() {
+		ResUtil.close(new AutoCloseable[] { conn });
+	}
+
+	@Benchmark
+	public void fixedOne() {
+		ResUtil.close(conn);
+	}
+
+	@Benchmark
+	public void varargsThree() {
+		ResUtil.close(new AutoCloseable[] { rs, pstm, conn });
+	}
+
+	@Benchmark
+	public void fixedThree() {
+		ResUtil.close(rs, pstm, conn);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(CloseBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
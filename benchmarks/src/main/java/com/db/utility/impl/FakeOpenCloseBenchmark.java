@@ -0,0 +1,23 @@
+package com.db.utility.impl;
+
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.openjdk.jmh.annotations.Param;
+
+import com.db.utility.bench.BenchmarkConfig;
+
+/**
+ * Runs the {@link OpenCloseBenchmark} against the in-process fake driver, whose connect
+ * and query latency is {@code latencyMicros}.
+ */
+public class FakeOpenCloseBenchmark extends OpenCloseBenchmark {
+
+	@Param({ "0", "100" })
+	public long latencyMicros;
+
+	@Override
+	Properties database() throws SQLException {
+		return BenchmarkConfig.fake(latencyMicros, maxPoolSize);
+	}
+}
@@ -0,0 +1,16 @@
+package com.db.utility.impl;
+
+import java.util.Properties;
+
+import com.db.utility.bench.BenchmarkConfig;
+
+/**
+ * Runs the {@link OpenCloseBenchmark} against an embedded in-memory H2 database.
+ */
+public class H2OpenCloseBenchmark extends OpenCloseBenchmark {
+
+	@Override
+	Properties database() throws ClassNotFoundException {
+		return BenchmarkConfig.h2(maxPoolSize);
+	}
+}
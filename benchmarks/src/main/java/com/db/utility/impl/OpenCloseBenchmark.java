@@ -0,0 +1,94 @@
+package com.db.utility.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.db.utility.bench.BenchmarkConfig;
+
+/**
+ * Measures the connection lifecycle through {@link ResUtil}: borrowing with
+ * {@code open()}, running a query, and handing back with {@code close(...)}.
+ * 
+ * <p>Each subclass supplies the database: {@link FakeOpenCloseBenchmark} the in-process
+ * fake driver, whose latency it varies, and {@link H2OpenCloseBenchmark} an embedded H2
+ * database. Run {@link #main(String[])} to sweep both over 1 to 128 threads, or pass
+ * {@code -t} to the benchmark jar.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class OpenCloseBenchmark {
+
+	private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64, 128 };
+
+	@Param({ "10" })
+	public int maxPoolSize;
+
+	/**
+     * Returns the properties of the benchmark database.
+     */
+	abstract Properties database() throws Exception;
+
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkConfig.withProperties(database(), () -> ResUtil.close(ResUtil.open()));
+	}
+
+	@TearDown
+	public void tearDown() {
+		ResUtil.shutdown();
+	}
+
+	@Benchmark
+	public Connection openClose() {
+		Connection conn = ResUtil.open();
+		ResUtil.close(conn);
+		return conn;
+	}
+
+	@Benchmark
+	public boolean openQueryClose() throws SQLException {
+		Connection conn = null;
+		PreparedStatement pstm = null;
+		ResultSet rs = null;
+		try {
+			conn = ResUtil.open();
+			pstm = conn.prepareStatement("SELECT 1");
+			rs = pstm.executeQuery();
+			return rs.next();
+		} finally {
+			ResUtil.close(rs, pstm, conn);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : THREADS)
+			new Runner(new OptionsBuilder()
+					.include(OpenCloseBenchmark.class.getSimpleName())
+					.threads(threads)
+					.build()).run();
+	}
+}
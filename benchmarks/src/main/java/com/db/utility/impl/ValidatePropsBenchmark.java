@@ -0,0 +1,60 @@
+package com.db.utility.impl;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.db.utility.config.DbConfig;
+
+/**
+ * Measures validating the connection properties with {@link ResUtil#validateProps(Properties)}
+ * and building the {@link DbConfig} snapshot from them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatePropsBenchmark {
+
+	private Properties complete;
+	private Properties missingKeys;
+
+	@Setup
+	public void setup() {
+		complete = new Properties();
+		complete.setProperty("DB_URL", "jdbc:fake:bench:db");
+		complete.setProperty("DB_USER", "sa");
+		complete.setProperty("DB_PASS", "");
+		complete.setProperty("POOL_MAX_SIZE", "10");
+
+		missingKeys = new Properties();
+		missingKeys.setProperty("DB_USER", "sa");
+	}
+
+	@Benchmark
+	public boolean validateComplete() {
+		return ResUtil.validateProps(complete);
+	}
+
+	@Benchmark
+	public boolean validateMissingKeys() {
+		return ResUtil.validateProps(missingKeys);
+	}
+
+	@Benchmark
+	public DbConfig buildConfig() {
+		return DbConfig.from(complete);
+	}
+}
@@ -0,0 +1,74 @@
+package com.db.utility.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.db.utility.bench.FakeDriver;
+
+/**
+ * Compares opening a connection through {@code DriverManager.getConnection} with the
+ * cached driver used by {@link DriverConnector}, with {@code drivers} registered drivers
+ * and the one accepting the URL registered last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriverConnectorBenchmark {
+
+	@Param({ "1", "4", "16" })
+	public int drivers;
+
+	private String url;
+	private DriverConnector connector;
+
+	@Setup
+	public void setup() throws SQLException {
+		for (int i = 1; i < drivers; i++)
+			FakeDriver.register("other" + i);
+
+		url = FakeDriver.register("target" + drivers);
+		connector = new DriverConnector(url, "user", "pass", 3);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Connection driverManager() throws SQLException {
+		return DriverManager.getConnection(url, "user", "pass");
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Connection cachedDriver() throws SQLException {
+		return connector.connect();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Connection driverManagerContended() throws SQLException {
+		return DriverManager.getConnection(url, "user", "pass");
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Connection cachedDriverContended() throws SQLException {
+		return connector.connect();
+	}
+}
@@ -0,0 +1,43 @@
+package com.db.utility.pool;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link LatencyHistogram#record(long)} with durations spread over the buckets,
+ * from one thread and from eight threads sharing the histogram. Run it with
+ * {@code -prof gc} to check that recording allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyHistogramBenchmark {
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	@Benchmark
+	@Threads(1)
+	public void record() {
+		histogram.record(ThreadLocalRandom.current().nextLong(10_000_000));
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void recordContended() {
+		histogram.record(ThreadLocalRandom.current().nextLong(10_000_000));
+	}
+}
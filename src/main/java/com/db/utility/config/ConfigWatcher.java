@@ -0,0 +1,76 @@
+package com.db.utility.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code ConfigWatcher} class watches the directory of the configuration file with a
+ * {@link WatchService} and asks {@link DbConfig} to reload it when something changes.
+ *
+ * <p>It watches the directory rather than the file, so atomic replacements, such as a
+ * rename over the file or the symbolic link swap of a mounted Kubernetes config map, are
+ * seen as well. Editors and deployment tools often write a file in several steps, so
+ * events are collected until the directory stays quiet for a short while before the file
+ * is read again.</p>
+ */
+final class ConfigWatcher implements Runnable {
+
+	private static final Logger LOGGER = Logger.getLogger(ConfigWatcher.class.getPackage().getName());
+
+	private static final long QUIET_PERIOD_MS = 200;
+
+	private final WatchService watchService;
+
+	private ConfigWatcher(WatchService watchService) {
+		this.watchService = watchService;
+	}
+
+	/**
+     * Starts watching the directory of a configuration file on a daemon thread.
+     * Failing to watch it is logged, and the configuration is then simply not reloaded.
+     *
+     * @param file The configuration file.
+     */
+	static void start(Path file) {
+		Path dir = file.toAbsolutePath().getParent();
+		try {
+			WatchService watchService = FileSystems.getDefault().newWatchService();
+			dir.register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY,
+					StandardWatchEventKinds.ENTRY_DELETE);
+
+			Thread thread = new Thread(new ConfigWatcher(watchService), "db-config-watcher");
+			thread.setDaemon(true);
+			thread.start();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Unable to watch " + dir + ", configuration changes need a restart.", e);
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				do {
+					key.pollEvents();
+					if (!key.reset())
+						return;
+				} while ((key = watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS)) != null);
+
+				DbConfig.reload();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// the watcher stops with the JVM
+		}
+	}
+}
@@ -0,0 +1,690 @@
+package com.db.utility.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code DbConfig} class is an immutable snapshot of the database configuration
+ * read from the {@code application.properties} file.
+ * 
+ * <p>The file is located on the classpath, parsed and validated once, the first time
+ * {@link #get()} is called. Every later call returns the same snapshot, so reading the
+ * configuration never touches the file system again.</p>
+ * 
+ * <p>When the {@value #FILE_PROPERTY} system property names a file on the file system, the
+ * configuration is read from that file instead, and a {@link ConfigWatcher} reloads it
+ * whenever it changes. A valid new version atomically replaces the snapshot and is handed
+ * to the listeners registered with {@link #onReload(BiConsumer)}; an invalid one is
+ * logged and ignored. {@code POOL_RECYCLE_WINDOW_MS} is the time over which the pools
+ * replace the connections opened with the old credentials.</p>
+ * 
+ * <p>The required keys are {@code DB_URL}, {@code DB_USER} and {@code DB_PASS}. The
+ * optional keys {@code POOL_MIN_IDLE}, {@code POOL_MAX_SIZE} and
+ * {@code POOL_ACQUIRE_TIMEOUT_MS} size the connection pool, and {@code STATEMENT_CACHE_SIZE}
+ * sets how many prepared statements each connection caches. {@code POOL_WARMUP_QUERY} is run
+ * on every initial connection, and {@code POOL_WARMUP_BLOCKING} tells whether creating the
+ * pool waits for the initial connections. {@code POOL_IDLE_TIMEOUT_MS},
+ * {@code POOL_MAX_LIFETIME_MS} and {@code POOL_HOUSEKEEPING_PERIOD_MS} drive the background
+ * housekeeping of pooled connections. A connection unused for longer than
+ * {@code POOL_VALIDATION_THRESHOLD_MS} is pinged with {@code isValid}, or with
+ * {@code POOL_TEST_QUERY} when set, within {@code POOL_VALIDATION_TIMEOUT_MS}. Connections
+ * held longer than {@code POOL_LEAK_DETECTION_THRESHOLD_MS} are reported as leaks, with the
+ * acquiring stack trace for the {@code POOL_LEAK_STACK_SAMPLE_RATE} fraction of borrows.
+ * {@code POOL_LAZY_CONNECTIONS} makes {@code open()} defer borrowing until first use.</p>
+ * 
+ * <p>The file may declare several named data sources by prefixing the keys with the data
+ * source name, such as {@code orders.DB_URL} or {@code reports.POOL_MAX_SIZE}. A named data
+ * source needs its own {@code DB_URL}, {@code DB_USER} and {@code DB_PASS}, never inherits
+ * the unprefixed {@code DB_FAILOVER_URLS} or {@code DB_REPLICA_URLS}, and falls back to
+ * the unprefixed value of every other key. The unprefixed credentials make up the
+ * {@value #DEFAULT} data source, which is optional once a named one is declared.</p>
+ * 
+ * <p>{@code DB_REPLICA_URLS} lists the comma-separated URLs of the read replicas of a data
+ * source, reached with the same credentials and pool settings as {@code DB_URL}.</p>
+ * 
+ * <p>{@code DB_FAILOVER_URLS} lists, in order of preference, the hosts to connect to when
+ * {@code DB_URL} is down. A host is skipped after {@code POOL_BREAKER_THRESHOLD} consecutive
+ * connection failures, and probed every {@code POOL_BREAKER_PROBE_MS} until it is back.</p>
+ */
+public final class DbConfig {
+
+	public static final String RESOURCE = "application.properties";
+
+	/**
+     * The system property naming a configuration file on the file system, which is then
+     * read instead of the classpath resource and reloaded when it changes.
+     */
+	public static final String FILE_PROPERTY = "db.config.file";
+
+	/**
+     * The name of the data source made of the unprefixed keys.
+     */
+	public static final String DEFAULT = "default";
+
+	private static final String[] REQUIRED_KEYS = { "DB_URL", "DB_USER", "DB_PASS" };
+
+	/**
+     * The host lists, which a named data source never inherits from the unprefixed keys, as
+     * its connections would otherwise reach the hosts of another database.
+     */
+	private static final String[] HOST_KEYS = { "DB_FAILOVER_URLS", "DB_REPLICA_URLS" };
+
+	private static final Set<String> KEYS = new HashSet<>(Arrays.asList(
+			"DB_URL", "DB_USER", "DB_PASS", "DB_FAILOVER_URLS", "DB_REPLICA_URLS", "POOL_MIN_IDLE", "POOL_MAX_SIZE", "POOL_ACQUIRE_TIMEOUT_MS",
+			"STATEMENT_CACHE_SIZE", "POOL_IDLE_TIMEOUT_MS", "POOL_MAX_LIFETIME_MS", "POOL_HOUSEKEEPING_PERIOD_MS",
+			"POOL_VALIDATION_THRESHOLD_MS", "POOL_VALIDATION_TIMEOUT_MS", "POOL_TEST_QUERY",
+			"POOL_LEAK_DETECTION_THRESHOLD_MS", "POOL_LEAK_STACK_SAMPLE_RATE", "POOL_LAZY_CONNECTIONS",
+			"POOL_WARMUP_QUERY", "POOL_WARMUP_BLOCKING", "POOL_BREAKER_THRESHOLD", "POOL_BREAKER_PROBE_MS",
+			"POOL_RECYCLE_WINDOW_MS"));
+
+	private static final Logger LOGGER = Logger.getLogger(DbConfig.class.getPackage().getName());
+
+	private static final ReentrantLock lock = new ReentrantLock();
+
+	private static volatile Map<String, DbConfig> instances;
+
+	private static final List<BiConsumer<Map<String, DbConfig>, Map<String, DbConfig>>> listeners = new CopyOnWriteArrayList<>();
+
+	private final String name;
+	private final String url;
+	private final String user;
+	private final String pass;
+	private final List<String> failoverUrls;
+	private final List<String> replicaUrls;
+	private final boolean replica;
+	private final int minIdle;
+	private final int maxPoolSize;
+	private final long acquireTimeoutMs;
+	private final int statementCacheSize;
+	private final long idleTimeoutMs;
+	private final long maxLifetimeMs;
+	private final long housekeepingPeriodMs;
+	private final long validationThresholdMs;
+	private final long validationTimeoutMs;
+	private final String testQuery;
+	private final long leakDetectionThresholdMs;
+	private final double leakStackSampleRate;
+	private final boolean lazyConnections;
+	private final String warmupQuery;
+	private final boolean warmupBlocking;
+	private final int breakerThreshold;
+	private final long breakerProbeMs;
+	private final long recycleWindowMs;
+
+	private DbConfig(String name, Reader props) {
+		this.name = name;
+		this.url = props.required("DB_URL");
+		this.user = props.required("DB_USER");
+		this.pass = props.required("DB_PASS");
+		this.failoverUrls = props.listValue("DB_FAILOVER_URLS");
+		this.replicaUrls = props.listValue("DB_REPLICA_URLS");
+		this.replica = false;
+		this.maxPoolSize = props.intValue("POOL_MAX_SIZE", 10, 1, Integer.MAX_VALUE);
+		this.minIdle = props.intValue("POOL_MIN_IDLE", Math.min(2, maxPoolSize), 0, maxPoolSize);
+		this.acquireTimeoutMs = props.longValue("POOL_ACQUIRE_TIMEOUT_MS", 30000L, 0);
+		this.statementCacheSize = props.intValue("STATEMENT_CACHE_SIZE", 0, 0, Integer.MAX_VALUE);
+		this.idleTimeoutMs = props.longValue("POOL_IDLE_TIMEOUT_MS", 600000L, 0);
+		this.maxLifetimeMs = props.longValue("POOL_MAX_LIFETIME_MS", 1800000L, 0);
+		this.housekeepingPeriodMs = props.longValue("POOL_HOUSEKEEPING_PERIOD_MS", 30000L, 0);
+		this.validationThresholdMs = props.longValue("POOL_VALIDATION_THRESHOLD_MS", 500L, Long.MIN_VALUE);
+		this.validationTimeoutMs = props.longValue("POOL_VALIDATION_TIMEOUT_MS", 5000L, 0);
+		this.testQuery = props.stringValue("POOL_TEST_QUERY");
+		this.leakDetectionThresholdMs = props.longValue("POOL_LEAK_DETECTION_THRESHOLD_MS", 0L, 0);
+		this.leakStackSampleRate = props.doubleValue("POOL_LEAK_STACK_SAMPLE_RATE", 0.01, 0, 1);
+		this.lazyConnections = props.booleanValue("POOL_LAZY_CONNECTIONS", false);
+		this.warmupQuery = props.stringValue("POOL_WARMUP_QUERY");
+		this.warmupBlocking = props.booleanValue("POOL_WARMUP_BLOCKING", true);
+		this.breakerThreshold = props.intValue("POOL_BREAKER_THRESHOLD", 3, 1, Integer.MAX_VALUE);
+		this.breakerProbeMs = props.longValue("POOL_BREAKER_PROBE_MS", 5000L, 1);
+		this.recycleWindowMs = props.longValue("POOL_RECYCLE_WINDOW_MS", 60000L, 0);
+	}
+
+	private DbConfig(DbConfig primary, String name, String url) {
+		this.name = name;
+		this.url = url;
+		this.user = primary.user;
+		this.pass = primary.pass;
+		this.failoverUrls = Collections.emptyList();
+		this.replicaUrls = Collections.emptyList();
+		this.replica = true;
+		this.minIdle = primary.minIdle;
+		this.maxPoolSize = primary.maxPoolSize;
+		this.acquireTimeoutMs = primary.acquireTimeoutMs;
+		this.statementCacheSize = primary.statementCacheSize;
+		this.idleTimeoutMs = primary.idleTimeoutMs;
+		this.maxLifetimeMs = primary.maxLifetimeMs;
+		this.housekeepingPeriodMs = primary.housekeepingPeriodMs;
+		this.validationThresholdMs = primary.validationThresholdMs;
+		this.validationTimeoutMs = primary.validationTimeoutMs;
+		this.testQuery = primary.testQuery;
+		this.leakDetectionThresholdMs = primary.leakDetectionThresholdMs;
+		this.leakStackSampleRate = primary.leakStackSampleRate;
+		this.lazyConnections = primary.lazyConnections;
+		this.warmupQuery = primary.warmupQuery;
+		this.warmupBlocking = primary.warmupBlocking;
+		this.breakerThreshold = primary.breakerThreshold;
+		this.breakerProbeMs = primary.breakerProbeMs;
+		this.recycleWindowMs = primary.recycleWindowMs;
+	}
+
+	/**
+     * Returns the shared configuration snapshot of the {@value #DEFAULT} data source, loading
+     * the {@code application.properties} file on first use.
+     * 
+     * @return The configuration snapshot.
+     * 
+     * @throws IllegalArgumentException If the file is missing, malformatted or lacks a required key.
+     */
+	public static DbConfig get() {
+		return get(DEFAULT);
+	}
+
+	/**
+     * Returns the shared configuration snapshot of a named data source, loading the
+     * {@code application.properties} file on first use.
+     * 
+     * @param name The data source name, the prefix of its keys.
+     * 
+     * @return The configuration snapshot.
+     * 
+     * @throws IllegalArgumentException If the file is missing, malformatted or lacks a required
+     *         key, or if it does not declare the data source.
+     */
+	public static DbConfig get(String name) {
+		DbConfig config = instances().get(name);
+		if (config == null)
+			throw new IllegalArgumentException("Unknown data source: " + name);
+
+		return config;
+	}
+
+	private static Map<String, DbConfig> instances() {
+		Map<String, DbConfig> current = instances;
+		if (current != null)
+			return current;
+
+		lock.lock();
+		try {
+			if (instances == null) {
+				instances = dataSources(readProperties());
+
+				Path file = file();
+				if (file != null)
+					ConfigWatcher.start(file);
+			}
+			return instances;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+     * Registers a listener called, on the watcher thread, every time the configuration file
+     * is reloaded with a change.
+     * 
+     * @param listener Receives the previous and the new snapshots, mapped by data source name.
+     */
+	public static void onReload(BiConsumer<Map<String, DbConfig>, Map<String, DbConfig>> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+     * Reads the configuration file again and, if it is valid and changed, swaps the shared
+     * snapshots and notifies the listeners.
+     */
+	static void reload() {
+		Map<String, DbConfig> previous;
+		Map<String, DbConfig> next;
+
+		lock.lock();
+		try {
+			previous = instances;
+			try {
+				next = dataSources(readProperties());
+			} catch (IllegalArgumentException e) {
+				LOGGER.log(Level.WARNING, "Ignoring invalid " + RESOURCE + ", keeping the current configuration.", e);
+				return;
+			}
+			if (next.equals(previous))
+				return;
+
+			instances = next;
+		} finally {
+			lock.unlock();
+		}
+
+		LOGGER.info("Reloaded " + RESOURCE + ".");
+		for (BiConsumer<Map<String, DbConfig>, Map<String, DbConfig>> listener : listeners) {
+			try {
+				listener.accept(previous, next);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Configuration reload listener failed.", e);
+			}
+		}
+	}
+
+	private static Path file() {
+		String file = System.getProperty(FILE_PROPERTY);
+		return file == null || file.trim().isEmpty() ? null : Paths.get(file.trim());
+	}
+
+	/**
+     * Builds the configuration snapshot of the {@value #DEFAULT} data source from already
+     * loaded properties, ignoring prefixed keys.
+     * 
+     * @param props The {@link Properties} holding the database connection settings.
+     * 
+     * @return The configuration snapshot.
+     * 
+     * @throws IllegalArgumentException If the properties are empty, lack a required key or
+     *         hold a malformed value.
+     */
+	public static DbConfig from(Properties props) {
+
+		if (props == null || props.isEmpty())
+			throw new IllegalArgumentException("malformatted file.");
+
+		ValidationReport.Builder report = new ValidationReport.Builder();
+		parse(DEFAULT, "", props, report);
+		return valid(report.build()).getDataSources().get(DEFAULT);
+	}
+
+	/**
+     * Builds the configuration snapshot of every data source declared by already loaded
+     * properties.
+     * 
+     * <p>The {@value #DEFAULT} data source is included when the unprefixed credentials are
+     * set, or when no named data source is declared.</p>
+     * 
+     * @param props The {@link Properties} holding the database connection settings.
+     * 
+     * @return An unmodifiable map from data source name to its configuration snapshot.
+     * 
+     * @throws IllegalArgumentException If the properties are empty, or if {@link #validate(Properties)}
+     *         finds a problem; the message then lists every problem.
+     */
+	public static Map<String, DbConfig> dataSources(Properties props) {
+
+		if (props == null || props.isEmpty())
+			throw new IllegalArgumentException("malformatted file.");
+
+		return valid(validate(props)).getDataSources();
+	}
+
+	/**
+     * Validates the settings of every data source declared by already loaded properties.
+     * 
+     * <p>Unlike {@link #dataSources(Properties)}, it does not stop at the first problem: the
+     * report lists every missing required key and every malformed value, together with the
+     * typed configuration of the data sources that are valid. It keeps no state between
+     * calls, so it is safe to call from any thread.</p>
+     * 
+     * @param props The {@link Properties} holding the database connection settings.
+     * 
+     * @return The validation report.
+     */
+	public static ValidationReport validate(Properties props) {
+		ValidationReport.Builder report = new ValidationReport.Builder();
+		Properties settings = props != null ? props : new Properties();
+
+		Set<String> names = new TreeSet<>();
+		for (String key : settings.stringPropertyNames()) {
+			int dot = key.indexOf('.');
+			if (dot > 0 && KEYS.contains(key.substring(dot + 1)))
+				names.add(key.substring(0, dot));
+		}
+
+		if (names.isEmpty() || declaresDefault(settings))
+			parse(DEFAULT, "", settings, report);
+
+		for (String name : names) {
+			if (name.equals(DEFAULT))
+				report.malformed(DEFAULT + ".*", DEFAULT + " is reserved for the unprefixed keys");
+			else
+				parse(name, name + ".", settings, report);
+		}
+		return report.build();
+	}
+
+	private static ValidationReport valid(ValidationReport report) {
+		if (!report.isValid())
+			throw new IllegalArgumentException(report.getMessage());
+
+		return report;
+	}
+
+	private static boolean isRequired(String key) {
+		for (String required : REQUIRED_KEYS)
+			if (required.equals(key))
+				return true;
+		return false;
+	}
+
+	private static boolean isHostList(String key) {
+		for (String hosts : HOST_KEYS)
+			if (hosts.equals(key))
+				return true;
+		return false;
+	}
+
+	private static boolean declaresDefault(Properties props) {
+		for (String key : REQUIRED_KEYS)
+			if (props.containsKey(key))
+				return true;
+		return false;
+	}
+
+	/**
+     * Parses the settings of one data source, adding it to the report if they are valid.
+     */
+	private static void parse(String name, String prefix, Properties props, ValidationReport.Builder report) {
+		int problems = report.problemCount();
+		DbConfig config = new DbConfig(name, new Reader(props, prefix, report));
+		if (report.problemCount() == problems)
+			report.dataSource(config);
+	}
+
+	private static Properties readProperties() {
+		Path file = file();
+		InputStream inputStream;
+		try {
+			inputStream = file != null
+					? Files.newInputStream(file)
+					: Thread.currentThread().getContextClassLoader().getResourceAsStream(RESOURCE);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(file + " file not found.", e);
+		}
+
+		if (inputStream == null)
+			throw new IllegalArgumentException(RESOURCE + " file not found.");
+
+		try (InputStream in = inputStream) {
+			Properties props = new Properties();
+			props.load(in);
+			return props;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read " + RESOURCE + ".", e);
+		}
+	}
+
+	/**
+     * Reads the typed settings of one data source, recording every missing or malformed
+     * value in the report instead of failing on the first one.
+     * 
+     * <p>A named data source reads its prefixed keys and falls back to the unprefixed value
+     * of every key but the required ones and the host lists.</p>
+     */
+	private static final class Reader {
+
+		private final Properties props;
+		private final String prefix;
+		private final ValidationReport.Builder report;
+
+		Reader(Properties props, String prefix, ValidationReport.Builder report) {
+			this.props = props;
+			this.prefix = prefix;
+			this.report = report;
+		}
+
+		private String key(String key) {
+			String prefixed = prefix + key;
+			return prefix.isEmpty() || isRequired(key) || isHostList(key) || props.containsKey(prefixed) ? prefixed : key;
+		}
+
+		String required(String key) {
+			String value = props.getProperty(prefix + key);
+			if (value == null)
+				report.missing(prefix + key);
+
+			return value;
+		}
+
+		String stringValue(String key) {
+			String value = props.getProperty(key(key));
+			if (value == null || value.trim().isEmpty())
+				return null;
+
+			return value.trim();
+		}
+
+		List<String> listValue(String key) {
+			String value = stringValue(key);
+			if (value == null)
+				return Collections.emptyList();
+
+			List<String> values = new ArrayList<>();
+			for (String item : value.split(","))
+				if (!item.trim().isEmpty())
+					values.add(item.trim());
+			return Collections.unmodifiableList(values);
+		}
+
+		boolean booleanValue(String key, boolean defaultValue) {
+			String value = stringValue(key);
+			if (value == null)
+				return defaultValue;
+
+			if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+				report.malformed(key(key), value + " is neither true nor false");
+				return defaultValue;
+			}
+			return Boolean.parseBoolean(value);
+		}
+
+		double doubleValue(String key, double defaultValue, double min, double max) {
+			String value = stringValue(key);
+			if (value == null)
+				return defaultValue;
+
+			try {
+				double parsed = Double.parseDouble(value);
+				if (parsed >= min && parsed <= max)
+					return parsed;
+
+				report.malformed(key(key), value + " is not between " + min + " and " + max);
+			} catch (NumberFormatException e) {
+				report.malformed(key(key), value + " is not a number");
+			}
+			return defaultValue;
+		}
+
+		int intValue(String key, int defaultValue, int min, int max) {
+			long value = longValue(key, defaultValue, min);
+			if (value <= max)
+				return (int) value;
+
+			report.malformed(key(key), value + " is above the maximum of " + max);
+			return defaultValue;
+		}
+
+		long longValue(String key, long defaultValue, long min) {
+			String value = stringValue(key);
+			if (value == null)
+				return defaultValue;
+
+			try {
+				long parsed = Long.parseLong(value);
+				if (parsed >= min)
+					return parsed;
+
+				report.malformed(key(key), value + " is below the minimum of " + min);
+			} catch (NumberFormatException e) {
+				report.malformed(key(key), value + " is not a whole number");
+			}
+			return defaultValue;
+		}
+	}
+
+	/**
+     * Tells whether another snapshot has the same pool settings, ignoring the name and the
+     * connection settings: the URLs of the primary and failover hosts and the credentials.
+     * Replica URLs count as pool settings, since each replica has its own pool.
+     * 
+     * @param other The snapshot to compare with.
+     * 
+     * @return {@code true} if only the connection settings may differ.
+     */
+	public boolean hasSamePoolSettings(DbConfig other) {
+		return poolSettings().equals(other.poolSettings());
+	}
+
+	private List<Object> poolSettings() {
+		return Arrays.<Object>asList(replicaUrls, replica, minIdle, maxPoolSize, acquireTimeoutMs, statementCacheSize,
+				idleTimeoutMs, maxLifetimeMs, housekeepingPeriodMs, validationThresholdMs, validationTimeoutMs,
+				testQuery, leakDetectionThresholdMs, leakStackSampleRate, lazyConnections, warmupQuery,
+				warmupBlocking, breakerThreshold, breakerProbeMs, recycleWindowMs);
+	}
+
+	private List<Object> connectionSettings() {
+		return Arrays.<Object>asList(name, url, failoverUrls, user, pass);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof DbConfig))
+			return false;
+
+		DbConfig other = (DbConfig) obj;
+		return connectionSettings().equals(other.connectionSettings()) && hasSamePoolSettings(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * connectionSettings().hashCode() + poolSettings().hashCode();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public String getUser() {
+		return user;
+	}
+
+	public String getPass() {
+		return pass;
+	}
+
+	public List<String> getFailoverUrls() {
+		return failoverUrls;
+	}
+
+	public List<String> getReplicaUrls() {
+		return replicaUrls;
+	}
+
+	/**
+     * Returns the configuration of one of the read replicas: the same credentials and pool
+     * settings, with the replica URL.
+     * 
+     * @param index The position of the replica in {@code DB_REPLICA_URLS}, starting at 0.
+     * 
+     * @return The configuration snapshot of the replica, named after this data source.
+     */
+	public DbConfig replica(int index) {
+		return new DbConfig(this, name + "-replica-" + (index + 1), replicaUrls.get(index));
+	}
+
+	/**
+     * Tells whether this is the configuration of a read replica, whose connections are
+     * opened read-only.
+     */
+	public boolean isReplica() {
+		return replica;
+	}
+
+	public int getMinIdle() {
+		return minIdle;
+	}
+
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+
+	public long getAcquireTimeoutMs() {
+		return acquireTimeoutMs;
+	}
+
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	public long getIdleTimeoutMs() {
+		return idleTimeoutMs;
+	}
+
+	public long getMaxLifetimeMs() {
+		return maxLifetimeMs;
+	}
+
+	public long getHousekeepingPeriodMs() {
+		return housekeepingPeriodMs;
+	}
+
+	public long getValidationThresholdMs() {
+		return validationThresholdMs;
+	}
+
+	public long getValidationTimeoutMs() {
+		return validationTimeoutMs;
+	}
+
+	public String getTestQuery() {
+		return testQuery;
+	}
+
+	public long getLeakDetectionThresholdMs() {
+		return leakDetectionThresholdMs;
+	}
+
+	public double getLeakStackSampleRate() {
+		return leakStackSampleRate;
+	}
+
+	public boolean isLazyConnections() {
+		return lazyConnections;
+	}
+
+	public String getWarmupQuery() {
+		return warmupQuery;
+	}
+
+	public boolean isWarmupBlocking() {
+		return warmupBlocking;
+	}
+
+	public int getBreakerThreshold() {
+		return breakerThreshold;
+	}
+
+	public long getBreakerProbeMs() {
+		return breakerProbeMs;
+	}
+
+	public long getRecycleWindowMs() {
+		return recycleWindowMs;
+	}
+}
@@ -0,0 +1,124 @@
+package com.db.utility.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code ValidationReport} class is the immutable outcome of validating the
+ * {@code application.properties} settings with {@link DbConfig#validate(java.util.Properties)}.
+ *
+ * <p>It lists every missing required key and every malformed value at once, rather than
+ * stopping at the first problem, and holds the typed configuration of every data source
+ * that passed validation. Keys of named data sources are reported with their prefix, such
+ * as {@code orders.DB_URL}.</p>
+ *
+ * <p>A report is built by a single thread and never changes afterwards, so it can be
+ * shared freely between threads.</p>
+ */
+public final class ValidationReport {
+
+	private final List<String> missingKeys;
+	private final Map<String, String> malformedKeys;
+	private final Map<String, DbConfig> dataSources;
+
+	private ValidationReport(Builder builder) {
+		this.missingKeys = Collections.unmodifiableList(new ArrayList<>(builder.missingKeys));
+		this.malformedKeys = Collections.unmodifiableMap(new LinkedHashMap<>(builder.malformedKeys));
+		this.dataSources = Collections.unmodifiableMap(new LinkedHashMap<>(builder.dataSources));
+	}
+
+	/**
+     * Tells whether every required key is present and every value is well formed.
+     */
+	public boolean isValid() {
+		return missingKeys.isEmpty() && malformedKeys.isEmpty();
+	}
+
+	/**
+     * Returns the required keys that are missing, in the order they were checked.
+     */
+	public List<String> getMissingKeys() {
+		return missingKeys;
+	}
+
+	/**
+     * Returns the keys whose value is malformed or out of range, each mapped to a
+     * description of the problem.
+     */
+	public Map<String, String> getMalformedKeys() {
+		return malformedKeys;
+	}
+
+	/**
+     * Returns the typed configuration of every data source that passed validation, mapped
+     * by data source name.
+     */
+	public Map<String, DbConfig> getDataSources() {
+		return dataSources;
+	}
+
+	/**
+     * Describes every problem found, one key per line.
+     *
+     * @return The description, or an empty string if the settings are valid.
+     */
+	public String getMessage() {
+		StringBuilder message = new StringBuilder();
+		if (!missingKeys.isEmpty()) {
+			message.append("\nMissing required key:");
+			for (String key : missingKeys)
+				message.append('\n').append(key);
+		}
+		if (!malformedKeys.isEmpty()) {
+			message.append("\nMalformed key:");
+			for (Map.Entry<String, String> entry : malformedKeys.entrySet())
+				message.append('\n').append(entry.getKey()).append(": ").append(entry.getValue());
+		}
+		return message.toString();
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "ValidationReport[valid, data sources=" + dataSources.keySet() + "]" : "ValidationReport[" + getMessage() + "\n]";
+	}
+
+	/**
+     * Collects the problems found while validating, on a single thread.
+     */
+	static final class Builder {
+
+		private final List<String> missingKeys = new ArrayList<>();
+		private final Map<String, String> malformedKeys = new LinkedHashMap<>();
+		private final Map<String, DbConfig> dataSources = new LinkedHashMap<>();
+		/**
+         * Every problem recorded, including an unprefixed key found malformed again while
+         * another data source falls back to it, which the map lists only once.
+         */
+		private int problems;
+
+		void missing(String key) {
+			missingKeys.add(key);
+			problems++;
+		}
+
+		void malformed(String key, String problem) {
+			malformedKeys.put(key, problem);
+			problems++;
+		}
+
+		void dataSource(DbConfig config) {
+			dataSources.put(config.getName(), config);
+		}
+
+		int problemCount() {
+			return problems;
+		}
+
+		ValidationReport build() {
+			return new ValidationReport(this);
+		}
+	}
+}
@@ -1,9 +1,21 @@
 package com.db.utility.impl;
 
-import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.db.utility.config.DbConfig;
+import com.db.utility.pool.ConnectionPool;
+import com.db.utility.pool.PoolGroup;
+import com.db.utility.pool.PoolLatency;
+import com.db.utility.pool.PoolStats;
 
 /**
  * The {@code ResUtil} class is responsible for managing the creation and closing
@@ -13,133 +25,504 @@ import java.util.Properties;
  * connection details, such as the URL, username, and password, which are essential for
  * establishing a connection with the database.</p>
  * 
- * <p>The {@code open()} method attempts to establish a connection to the database
- * using the credentials provided in the {@code application.properties} file. If the
+ * <p>The {@code open()} method borrows a connection from a bounded connection pool
+ * created from the credentials provided in the {@code application.properties} file. If the
  * file is missing, malformatted, or contains invalid values, an error message will be
  * displayed.</p>
  * 
  * <p>The {@code close()} method is used to close {@code AutoCloseable} resources, such as
  * database connections, {@code ResultSet}, {@code Statement}, and other resources,
- * ensuring they are properly freed from memory.</p>
+ * ensuring they are properly freed from memory. Closing a pooled connection hands it
+ * back to the pool.</p>
  * 
  * <p>Note that the {@code application.properties} file should be available in the project's
  * classpath and must contain the required keys: {@code DB_URL}, {@code DB_USER}, and
- * {@code DB_PASS}.</p>
+ * {@code DB_PASS}. The optional keys {@code POOL_MIN_IDLE} (default 2), {@code POOL_MAX_SIZE}
+ * (default 10) and {@code POOL_ACQUIRE_TIMEOUT_MS} (default 30000) size the pool.</p>
+ * 
+ * <p>Named data sources, declared with prefixed keys such as {@code orders.DB_URL}, are
+ * reached with {@code open("orders")}. Each one has its own pool. {@code openReadOnly()}
+ * routes reads to the replicas listed in {@code DB_REPLICA_URLS}.</p>
+ * 
+ * <p>Each data source registers a JMX MBean named
+ * {@code com.db.utility:type=DataSource,name="<name>"} when its pool is created, which
+ * reports connection counts and latency percentiles and can resize the pool at runtime.</p>
  * 
- * @version 1.4.0
+ * @version 1.5.0
  * @author Michael D. Ribeiro
  */
 public class ResUtil {
 
-	private static String missingRequiredKey;
+	private static final ReentrantLock poolLock = new ReentrantLock();
+
+	private static final ConcurrentMap<String, PoolGroup> pools = new ConcurrentHashMap<>();
+
+	static {
+		DbConfig.onReload(ResUtil::reloaded);
+	}
 
 	/**
-     * Establishes a connection to the database using the properties provided
-     * in the {@code application.properties} file.
+     * Borrows a connection from the connection pool, creating the pool from the
+     * properties provided in the {@code application.properties} file on first use.
+     * 
+     * <p>The pool is created the first time this method is called, from the configuration
+     * snapshot returned by {@link DbConfig#get()}, and opens {@code POOL_MIN_IDLE}
+     * connections up front. The {@code application.properties} file is read and validated
+     * only once; later calls never touch it. Every connection is handed out with
+     * auto-commit set to {@code false} to enable manual transaction management.</p>
+     * 
+     * <p>Closing the returned connection, directly or through {@link #close(AutoCloseable...)},
+     * hands it back to the pool instead of closing the physical link.</p>
      * 
-     * <p>This method loads the database configuration properties from the
-     * {@code application.properties} file and attempts to establish a connection using
-     * {@code DriverManager}. If the properties file is missing or malformed, the method
-     * will throw an exception. The method also sets auto-commit to {@code false} to enable
-     * manual transaction management.</p>
+     * <p>With {@code POOL_LAZY_CONNECTIONS=true}, the returned connection borrows from the pool
+     * only when the first statement is created or the database is otherwise needed, so code
+     * that returns early never holds a pooled connection.</p>
      * 
-     * @return An instance of {@link Connection} representing the connection to the database,
-     *         or {@code null} if an error occurs while establishing the connection.
+     * @return An instance of {@link Connection} representing the connection to the database.
      * 
      * @throws RuntimeException If any error occurs during connection establishment, including
-     * 		   issues with loading the properties file or database connection.
+     * 		   issues with loading the properties file, database connection or a pool timeout.
      */
 	public static Connection open() {
-		Connection conn = null;
-		Properties props = new Properties();
-		InputStream inputStream = null;
+		return open(DbConfig.DEFAULT);
+	}
+
+	/**
+     * Borrows a connection from the pool of a named data source, creating the pool on first use.
+     * 
+     * <p>Behaves like {@link #open()} for the data source declared with the {@code name.} key
+     * prefix, such as {@code orders.DB_URL} for {@code open("orders")}.</p>
+     * 
+     * @param name The data source name.
+     * 
+     * @return An instance of {@link Connection} representing the connection to the database.
+     * 
+     * @throws RuntimeException If any error occurs during connection establishment, including
+     * 		   an unknown data source name.
+     */
+	public static Connection open(String name) {
+		try {
+			ConnectionPool current = pool(name).primary();
+			return current.isLazy() ? current.borrowLazy() : current.borrow();
+		} catch (Exception e) {
+			throw new RuntimeException("An error occurred while establishing the connection.", e);
+		}
+	}
+
+	/**
+     * Borrows a read-only connection, from a read replica when the data source has any.
+     * 
+     * <p>Replicas are listed in {@code DB_REPLICA_URLS}, and each borrow goes to the least
+     * loaded one. Without replicas the connection comes from the primary database. Either way
+     * the connection is set read-only, so writes must go through {@link #open()}.</p>
+     * 
+     * @return A read-only {@link Connection} that goes back to its pool when closed.
+     * 
+     * @throws RuntimeException If any error occurs during connection establishment, as
+     *         described in {@link #open()}.
+     */
+	public static Connection openReadOnly() {
+		return openReadOnly(DbConfig.DEFAULT);
+	}
+
+	/**
+     * Borrows a read-only connection for a named data source, from one of its read replicas
+     * when it has any.
+     * 
+     * @param name The data source name.
+     * 
+     * @return A read-only {@link Connection} that goes back to its pool when closed.
+     * 
+     * @throws RuntimeException If any error occurs during connection establishment, including
+     * 		   an unknown data source name.
+     */
+	public static Connection openReadOnly(String name) {
 		try {
+			ConnectionPool current = pool(name).replica();
+			Connection conn = current.isLazy() ? current.borrowLazy() : current.borrow();
+			try {
+				conn.setReadOnly(true);
+			} catch (SQLException e) {
+				conn.close();
+				throw e;
+			}
+			return conn;
+		} catch (Exception e) {
+			throw new RuntimeException("An error occurred while establishing the connection.", e);
+		}
+	}
+
+	/**
+     * Borrows a connection from the connection pool without blocking the calling thread.
+     * 
+     * <p>This is the asynchronous sibling of {@link #open()}, meant for event-loop threads
+     * that must never wait on the database. When the pool has an idle connection the
+     * returned future is already complete. Otherwise a new connection is opened on a pool
+     * thread, or the request waits in a queue until another caller hands a connection back,
+     * and the future is completed on the {@link ForkJoinPool#commonPool() common pool}.
+     * The first call creates the pool on a separate thread as well.</p>
+     * 
+     * @return A future completed with the {@link Connection}, or completed exceptionally if
+     *         the pool cannot be created, the pool is shut down, or no connection becomes
+     *         available within {@code POOL_ACQUIRE_TIMEOUT_MS}.
+     */
+	public static CompletableFuture<Connection> openAsync() {
+		return openAsync(DbConfig.DEFAULT);
+	}
+
+	/**
+     * Borrows a connection from the connection pool without blocking the calling thread,
+     * completing the future on {@code executor}, such as the event loop of the caller,
+     * unless it is already complete on return.
+     * 
+     * @param executor The executor completing the future and running the stages that
+     *                 depend on it.
+     * 
+     * @return A future completed with the {@link Connection}, or completed exceptionally as
+     *         described in {@link #openAsync()}.
+     */
+	public static CompletableFuture<Connection> openAsync(Executor executor) {
+		return openAsync(DbConfig.DEFAULT, executor);
+	}
 
-			inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("application.properties");
-			
-			if (inputStream == null)
-				throw new IllegalArgumentException("application.properties file not found.");
+	/**
+     * Borrows a connection from the pool of a named data source without blocking the calling
+     * thread.
+     * 
+     * @param name The data source name.
+     * 
+     * @return A future completed with the {@link Connection}, or completed exceptionally as
+     *         described in {@link #openAsync()}, including for an unknown data source name.
+     */
+	public static CompletableFuture<Connection> openAsync(String name) {
+		return openAsync(name, ForkJoinPool.commonPool());
+	}
 
-			props.load(inputStream);
+	/**
+     * Borrows a connection from the pool of a named data source without blocking the calling
+     * thread, completing the future on {@code executor} unless it is already complete on
+     * return.
+     * 
+     * @param name     The data source name.
+     * @param executor The executor completing the future and running the stages that
+     *                 depend on it.
+     * 
+     * @return A future completed with the {@link Connection}, or completed exceptionally as
+     *         described in {@link #openAsync()}, including for an unknown data source name.
+     */
+	public static CompletableFuture<Connection> openAsync(String name, Executor executor) {
+		if (executor == null)
+			throw new IllegalArgumentException("An executor must be provided.");
 
-			if (!validateProps(props))
-				throw new IllegalArgumentException("\nMissing required key:" + missingRequiredKey);
+		PoolGroup current = pools.get(name);
+		if (current != null)
+			return current.primary().borrowAsync(executor);
 
-			if (props == null || props.isEmpty())
-				throw new IllegalArgumentException("malformatted file.");
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return pool(name).primary();
+			} catch (Exception e) {
+				throw new RuntimeException("An error occurred while establishing the connection.", e);
+			}
+		}, command -> {
+			Thread thread = new Thread(command, "db-pool-init");
+			thread.setDaemon(true);
+			thread.start();
+		}).thenComposeAsync(pool -> pool.borrowAsync(executor), executor);
+	}
 
-			conn = DriverManager.getConnection(props.getProperty("DB_URL"), props.getProperty("DB_USER"), props.getProperty("DB_PASS"));
-			conn.setAutoCommit(false);
-			return conn;
+	/**
+     * Creates the connection pool ahead of the first {@link #open()} call, opening its
+     * {@code POOL_MIN_IDLE} initial connections in parallel, as well as the pools of the
+     * read replicas.
+     * 
+     * <p>Call it during application startup so the first requests do not pay the connection
+     * handshake. Each initial connection runs {@code POOL_WARMUP_QUERY} when it is set. With
+     * {@code POOL_WARMUP_BLOCKING=true}, the default, this method returns once the pool is
+     * warm; otherwise it returns at once and the future signals readiness.</p>
+     * 
+     * @return A future completed once every initial connection is ready, or completed
+     *         exceptionally if one of them could not be opened or warmed up.
+     * 
+     * @throws RuntimeException If the pool cannot be created, including blocking warm-up failures.
+     */
+	public static CompletableFuture<Void> warmUp() {
+		return warmUp(DbConfig.DEFAULT);
+	}
 
+	/**
+     * Creates the pool of a named data source ahead of the first {@link #open(String)} call.
+     * 
+     * @param name The data source name.
+     * 
+     * @return A future completed once every initial connection is ready, as described in
+     *         {@link #warmUp()}.
+     * 
+     * @throws RuntimeException If the pool cannot be created, including for an unknown data
+     *         source name.
+     */
+	public static CompletableFuture<Void> warmUp(String name) {
+		try {
+			return pool(name).ready();
 		} catch (Exception e) {
 			throw new RuntimeException("An error occurred while establishing the connection.", e);
-		} finally {
-			close(inputStream);
 		}
 	}
 
 	/**
-     * Validates the {@code application.properties} file to ensure all required keys are present.
+     * Returns the latency percentiles of the default data source.
      * 
-     * <p>This method checks whether the required properties for database connection configuration
-     * ({@code DB_URL}, {@code DB_USER}, and {@code DB_PASS}) exist in the loaded properties file.
-     * If any key is missing, an exception will be thrown with a description of the missing keys.</p>
+     * <p>The snapshot counts every {@code open()}, statement execution and {@code close()}
+     * since the pool was created, across the primary and its replicas. Percentiles are read
+     * from its histograms, such as {@code latency().getAcquire().getP99()}, in nanoseconds.
+     * Recording them takes no lock and allocates nothing, so it is always on.</p>
      * 
-     * @param props The {@link Properties} object representing the database connection settings.
+     * @return The snapshot, with no samples if the pool has not been created yet.
+     * 
+     * @throws IllegalArgumentException If the {@code application.properties} file cannot be loaded.
+     */
+	public static PoolLatency latency() {
+		return latency(DbConfig.DEFAULT);
+	}
+
+	/**
+     * Returns the latency percentiles of a named data source, as described in {@link #latency()}.
+     * 
+     * @param name The data source name.
      * 
-     * @return {@code true} if validation fails (i.e., a required property is missing), {@code false} otherwise.
+     * @return The snapshot, with no samples if the pool has not been created yet.
      * 
-     * @throws IllegalArgumentException If one or more required keys are missing from the properties file.
+     * @throws IllegalArgumentException If the {@code application.properties} file cannot be
+     *         loaded, or if the data source name is unknown.
      */
-	public static boolean validateProps(Properties props) {
-		boolean allSuccess = true;
+	public static PoolLatency latency(String name) {
+		PoolGroup current = pools.get(name);
+		if (current != null)
+			return current.latency();
+
+		DbConfig.get(name);
+		return PoolLatency.EMPTY;
+	}
 
-		if (!props.containsKey("DB_URL")) {
-			allSuccess = false;
-			missingRequiredKey = "\nDB_URL";
+	/**
+     * Shuts down the pool of every data source, closing every idle connection.
+     * 
+     * <p>Connections still in use are closed when they are handed back. A later call
+     * to {@link #open()} creates a new pool.</p>
+     */
+	public static void shutdown() {
+		poolLock.lock();
+		try {
+			for (String name : pools.keySet()) {
+				PoolGroup current = pools.remove(name);
+				if (current != null) {
+					PoolStats.unregister(name);
+					current.shutdown();
+				}
+			}
+		} finally {
+			poolLock.unlock();
 		}
+	}
+
+	/**
+     * Applies a reloaded configuration to the pools already created.
+     * 
+     * <p>A data source whose connection settings alone changed keeps its pools, which
+     * recycle their connections gradually over {@code POOL_RECYCLE_WINDOW_MS}. A data source
+     * whose pool settings changed gets new pools, and the old ones close their connections
+     * as they are handed back. A data source no longer declared is shut down.</p>
+     * 
+     * @throws RuntimeException If new pools cannot be created. The data source keeps its
+     *         current pools, and the other data sources are still updated.
+     */
+	private static void reloaded(Map<String, DbConfig> previous, Map<String, DbConfig> next) {
+		RuntimeException failure = null;
+		poolLock.lock();
+		try {
+			for (Map.Entry<String, PoolGroup> entry : pools.entrySet()) {
+				String name = entry.getKey();
+				DbConfig before = previous.get(name);
+				DbConfig after = next.get(name);
 
-		if (!props.containsKey("DB_USER")) {
-			allSuccess = false;
-			missingRequiredKey += "\nDB_USER";
+				if (after == null) {
+					pools.remove(name);
+					PoolStats.unregister(name);
+					entry.getValue().shutdown();
+				} else if (after.equals(before)) {
+					continue;
+				} else if (before != null && after.hasSamePoolSettings(before)) {
+					entry.getValue().reconnect(after);
+				} else {
+					PoolGroup replacement;
+					try {
+						replacement = new PoolGroup(after);
+					} catch (Exception e) {
+						if (failure == null)
+							failure = new RuntimeException("Unable to apply the new configuration of data source " + name + ".", e);
+						else
+							failure.addSuppressed(e);
+						continue;
+					}
+					pools.put(name, replacement);
+					PoolStats.register(name, replacement);
+					entry.getValue().shutdown();
+				}
+			}
+		} finally {
+			poolLock.unlock();
 		}
 
-		if (!props.containsKey("DB_PASS")) {
-			allSuccess = false;
-			missingRequiredKey += "\nDB_PASS";
+		if (failure != null)
+			throw failure;
+	}
+
+	private static PoolGroup pool(String name) throws Exception {
+		PoolGroup current = pools.get(name);
+		if (current != null)
+			return current;
+
+		// a lock rather than a monitor, so a virtual thread opening the initial
+		// connections does not pin its carrier thread
+		poolLock.lock();
+		try {
+			current = pools.get(name);
+			if (current == null) {
+				current = new PoolGroup(DbConfig.get(name));
+				pools.put(name, current);
+				PoolStats.register(name, current);
+			}
+			return current;
+		} finally {
+			poolLock.unlock();
 		}
+	}
 
-		return allSuccess;
+	/**
+     * Validates the {@code application.properties} settings to ensure all required keys are
+     * present and every value is well formed.
+     * 
+     * <p>This method checks whether the required properties for database connection configuration
+     * ({@code DB_URL}, {@code DB_USER}, and {@code DB_PASS}) exist in the loaded properties file,
+     * for every declared data source, and whether the optional values parse. It keeps no state
+     * between calls, so concurrent calls cannot affect each other. Use
+     * {@link DbConfig#validate(Properties)} to find out which keys are missing or malformed.</p>
+     * 
+     * @param props The {@link Properties} object representing the database connection settings.
+     * 
+     * @return {@code true} if the settings are valid, {@code false} if a required key is
+     *         missing or a value is malformed.
+     */
+	public static boolean validateProps(Properties props) {
+		return DbConfig.validate(props).isValid();
 	}
 
 	/**
      * Closes one or more {@code AutoCloseable} resources.
      * 
      * <p>This method ensures that all resources passed to it (such as database connections, 
-     * {@code ResultSet}, {@code Statement}, etc.) are properly closed to avoid resource leaks.</p>
+     * {@code ResultSet}, {@code Statement}, etc.) are properly closed to avoid resource leaks.
+     * Resources are closed from the last to the first, and a failure to close one of them
+     * does not stop the others from being closed.</p>
      * 
      * <p>If no resources are provided, an {@link IllegalArgumentException} is thrown.</p>
      * 
      * @param resources One or more {@code AutoCloseable} resources to be closed.
      * 
      * @throws IllegalArgumentException If no resources are provided.
-     * @throws RuntimeException If any error occurs while closing a resource.
+     * @throws RuntimeException After every resource has been closed, if any of them failed to
+     *         close. Its cause is the first failure; later failures are attached as suppressed
+     *         exceptions.
      */
 	public static void close(AutoCloseable ... resources) {
 
 		if (resources.length == 0)
 			throw new IllegalArgumentException("At least one AutoCloseable resource must be provided.");
 
-		for (int i = resources.length - 1; i >= 0; i--) {
-			AutoCloseable resource = resources[i];
-			if (resource != null) {
-				try {
-					resource.close();
-				} catch (Exception e) {
-					throw new RuntimeException("Error occurred while attempting to release resource: " + resource + "\n" + e);
-				}
-			}
+		RuntimeException failure = null;
+		for (int i = resources.length - 1; i >= 0; i--)
+			failure = release(resources[i], failure);
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+     * Closes a single {@code AutoCloseable} resource.
+     * 
+     * <p>Behaves like {@link #close(AutoCloseable...)} without allocating the varargs array,
+     * for the hot path that releases one resource at a time.</p>
+     * 
+     * @param resource The resource to be closed, may be {@code null}.
+     * 
+     * @throws RuntimeException If the resource fails to close.
+     */
+	public static void close(AutoCloseable resource) {
+		RuntimeException failure = release(resource, null);
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+     * Closes two {@code AutoCloseable} resources, {@code second} first.
+     * 
+     * <p>Behaves like {@link #close(AutoCloseable...)} without allocating the varargs array.</p>
+     * 
+     * @param first The resource closed last, may be {@code null}.
+     * @param second The resource closed first, may be {@code null}.
+     * 
+     * @throws RuntimeException After both resources have been closed, if any of them failed to close.
+     */
+	public static void close(AutoCloseable first, AutoCloseable second) {
+		RuntimeException failure = release(second, null);
+		failure = release(first, failure);
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+     * Closes three {@code AutoCloseable} resources, {@code third} first, such as
+     * {@code close(rs, pstm, conn)}.
+     * 
+     * <p>Behaves like {@link #close(AutoCloseable...)} without allocating the varargs array.</p>
+     * 
+     * @param first The resource closed last, may be {@code null}.
+     * @param second The resource closed second, may be {@code null}.
+     * @param third The resource closed first, may be {@code null}.
+     * 
+     * @throws RuntimeException After every resource has been closed, if any of them failed to close.
+     */
+	public static void close(AutoCloseable first, AutoCloseable second, AutoCloseable third) {
+		RuntimeException failure = release(third, null);
+		failure = release(second, failure);
+		failure = release(first, failure);
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+     * Closes a single resource, recording a failure instead of throwing it.
+     * 
+     * @param resource The resource to close, may be {@code null}.
+     * @param failure The failure recorded so far, or {@code null} if there is none.
+     * 
+     * @return The failure to throw once every resource has been closed, or {@code null}.
+     */
+	private static RuntimeException release(AutoCloseable resource, RuntimeException failure) {
+		if (resource == null)
+			return failure;
+
+		try {
+			resource.close();
+		} catch (Exception e) {
+			if (failure == null)
+				return new RuntimeException("Error occurred while attempting to release resource: " + resource, e);
+
+			failure.addSuppressed(e);
 		}
+		return failure;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.db.utility.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code CircuitBreaker} class tracks whether a database host is reachable, so the
+ * pool stops trying to connect to a host that is down.
+ *
+ * <p>The breaker opens after {@code threshold} consecutive connection failures. While it is
+ * open the pool skips the host right away instead of waiting for the driver's connect
+ * timeout, and a {@link HostProber} tries to connect in the background. The first probe
+ * that succeeds closes the breaker again.</p>
+ */
+final class CircuitBreaker {
+
+	private static final int CLOSED = 0;
+	private static final int OPEN = 1;
+	private static final int PROBING = 2;
+
+	private final int threshold;
+	private final AtomicInteger failures = new AtomicInteger();
+	private final AtomicInteger state = new AtomicInteger(CLOSED);
+
+	CircuitBreaker(int threshold) {
+		this.threshold = Math.max(1, threshold);
+	}
+
+	/**
+     * Tells whether the host may be used.
+     */
+	boolean isClosed() {
+		return state.get() == CLOSED;
+	}
+
+	/**
+     * Records a successful connection.
+     */
+	void recordSuccess() {
+		if (failures.get() != 0)
+			failures.set(0);
+	}
+
+	/**
+     * Records a failed connection.
+     *
+     * @return {@code true} if this failure opened the breaker.
+     */
+	boolean recordFailure() {
+		return failures.incrementAndGet() >= threshold && state.compareAndSet(CLOSED, OPEN);
+	}
+
+	/**
+     * Claims the right to probe an open breaker, so only one probe runs at a time.
+     *
+     * @return {@code true} if the caller must probe the host and report the outcome.
+     */
+	boolean tryProbe() {
+		return state.compareAndSet(OPEN, PROBING);
+	}
+
+	/**
+     * Reports the outcome of a probe claimed with {@link #tryProbe()}.
+     *
+     * @param reachable Whether the probe connected to the host.
+     */
+	void probed(boolean reachable) {
+		if (reachable)
+			failures.set(0);
+		state.set(reachable ? CLOSED : OPEN);
+	}
+}
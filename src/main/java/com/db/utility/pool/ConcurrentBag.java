@@ -0,0 +1,178 @@
+package com.db.utility.pool;
+
+import static com.db.utility.pool.PoolEntry.STATE_IN_USE;
+import static com.db.utility.pool.PoolEntry.STATE_NOT_IN_USE;
+import static com.db.utility.pool.PoolEntry.STATE_REMOVED;
+import static com.db.utility.pool.PoolEntry.STATE_RESERVED;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code ConcurrentBag} class is the lock-free structure the {@link ConnectionPool}
+ * lends its entries from.
+ * 
+ * <p>Every entry lives in a shared copy-on-write list and carries its own state slot.
+ * Borrowing an entry is a compare-and-set from {@code NOT_IN_USE} to {@code IN_USE},
+ * so no lock is ever held on the borrow or return path.</p>
+ * 
+ * <p>Each thread also keeps a short list of the entries it returned. A thread that
+ * borrows again looks there first and normally gets its previous connection back
+ * without touching any shared state. An entry in a thread-local list still lives in the
+ * shared list, so other threads can steal it through the usual compare-and-set.</p>
+ * 
+ * <p>Virtual threads skip the thread-local list: they are cheap and short-lived, so a
+ * per-thread cache would rarely be hit again and would only cost memory.</p>
+ * 
+ * <p>When nothing is free, the borrower waits on a handoff queue that returning threads
+ * offer their entry to directly. Waiting parks the thread without holding a monitor,
+ * so a waiting virtual thread releases its carrier thread.</p>
+ */
+final class ConcurrentBag {
+
+	private static final int THREAD_LIST_SIZE = 16;
+
+	private final CopyOnWriteArrayList<PoolEntry> sharedList = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<List<PoolEntry>> threadList = new ThreadLocal<List<PoolEntry>>() {
+		@Override
+		protected List<PoolEntry> initialValue() {
+			return new ArrayList<>(THREAD_LIST_SIZE);
+		}
+	};
+	private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+	private final AtomicInteger waiters = new AtomicInteger();
+
+	/**
+     * Borrows an entry, waiting up to {@code timeout} for one to be returned when none
+     * is free.
+     * 
+     * @param timeout How long to wait; {@code 0} only scans for a free entry.
+     * @param unit The unit of {@code timeout}.
+     * 
+     * @return An entry now in use, or {@code null} if none became free in time.
+     * 
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+	PoolEntry borrow(long timeout, TimeUnit unit) throws InterruptedException {
+
+		// try the entries this thread used last, most recent first
+		if (!VirtualThreads.isCurrent()) {
+			List<PoolEntry> local = threadList.get();
+			for (int i = local.size() - 1; i >= 0; i--) {
+				PoolEntry entry = local.remove(i);
+				if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE))
+					return entry;
+			}
+		}
+
+		PoolEntry free = scan();
+		long remaining = unit.toNanos(timeout);
+		if (free != null || remaining <= 0)
+			return free;
+
+		// count as a waiter only while blocking, then scan again for an entry returned
+		// before returning threads could see this one waiting
+		waiters.incrementAndGet();
+		try {
+			free = scan();
+			if (free != null)
+				return free;
+
+			while (remaining > 0) {
+				long start = System.nanoTime();
+				PoolEntry entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+				if (entry == null || entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE))
+					return entry;
+				remaining -= System.nanoTime() - start;
+			}
+			return null;
+		} finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	private PoolEntry scan() {
+		for (PoolEntry entry : sharedList)
+			if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE))
+				return entry;
+		return null;
+	}
+
+	/**
+     * Returns a borrowed entry, handing it straight to a waiting borrower if there is one.
+     */
+	void requite(PoolEntry entry) {
+		entry.setState(STATE_NOT_IN_USE);
+
+		for (int i = 0; waiters.get() > 0; i++) {
+			if (entry.getState() != STATE_NOT_IN_USE || handoffQueue.offer(entry))
+				return;
+
+			if ((i & 0xff) == 0xff)
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+			else
+				Thread.yield();
+		}
+
+		if (VirtualThreads.isCurrent())
+			return;
+
+		List<PoolEntry> local = threadList.get();
+		if (local.size() < THREAD_LIST_SIZE)
+			local.add(entry);
+	}
+
+	/**
+     * Adds an entry created by the calling thread, which keeps it in use.
+     */
+	void add(PoolEntry entry) {
+		sharedList.add(entry);
+	}
+
+	/**
+     * Removes an entry that is in use or reserved by the calling thread.
+     * 
+     * @return {@code true} if the entry was removed, {@code false} if the caller did not own it.
+     */
+	boolean remove(PoolEntry entry) {
+		if (!entry.compareAndSet(STATE_IN_USE, STATE_REMOVED)
+				&& !entry.compareAndSet(STATE_RESERVED, STATE_REMOVED))
+			return false;
+
+		sharedList.remove(entry);
+		if (!VirtualThreads.isCurrent())
+			threadList.get().remove(entry);
+		return true;
+	}
+
+	/**
+     * Reserves an idle entry so no thread can borrow it, for example before closing it.
+     */
+	boolean reserve(PoolEntry entry) {
+		return entry.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED);
+	}
+
+	/**
+     * Returns a snapshot of every entry in the bag, whatever its state.
+     */
+	List<PoolEntry> values() {
+		return new ArrayList<>(sharedList);
+	}
+
+	int getWaitingThreadCount() {
+		return waiters.get();
+	}
+
+	int getCount(int state) {
+		int count = 0;
+		for (PoolEntry entry : sharedList)
+			if (entry.getState() == state)
+				count++;
+		return count;
+	}
+}
@@ -0,0 +1,1106 @@
+package com.db.utility.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.db.utility.config.DbConfig;
+
+/**
+ * The {@code ConnectionPool} class keeps a bounded set of physical database
+ * connections and lends them out to callers.
+ *
+ * <p>{@code borrow()} returns an idle connection when one is available, opens a new one
+ * while the pool is below its maximum size, or otherwise waits up to the configured
+ * acquire timeout for another caller to hand a connection back. The connection it
+ * returns is a proxy whose {@code close()} method gives the physical connection back to
+ * the pool instead of closing it.</p>
+ *
+ * <p>Connections are kept in a {@link ConcurrentBag}, so borrowing and returning take no
+ * lock, and a thread usually gets back the connection it returned last.</p>
+ *
+ * <p>When {@code STATEMENT_CACHE_SIZE} is positive, every physical connection keeps a
+ * {@link StatementCache} of that many prepared statements.</p>
+ *
+ * <p>{@code minIdle} connections are opened in parallel when the pool is created, and
+ * optionally warmed up with a query, so the first callers do not pay the connection
+ * handshake.</p>
+ *
+ * <p>A connection that has gone unused longer than the validation threshold is pinged
+ * before it is lent out, and replaced if it turns out to be broken. Recently used
+ * connections skip the round trip.</p>
+ *
+ * <p>A {@link HouseKeeper} runs in the background to close idle connections, retire
+ * connections that reached their maximum lifetime, validate idle connections, and refill
+ * the pool to {@code minIdle}. When leak detection is on, a {@link LeakDetector} reports
+ * connections held longer than its threshold.</p>
+ *
+ * <p>Connections go to the first host of the configured list whose {@link CircuitBreaker}
+ * is closed. A host that keeps failing is skipped without waiting for the driver's connect
+ * timeout, and a {@link HostProber} checks in the background when it is back.</p>
+ *
+ * <p>The pool of a read replica opens its connections read-only, so handing them out for
+ * reads costs no extra round trip.</p>
+ *
+ * <p>Borrows, statement executions and closes are recorded in {@link LatencyHistogram}s,
+ * read with {@link #latency()}, and reported as Flight Recorder events.</p>
+ */
+public class ConnectionPool {
+
+	/**
+     * How often a waiting borrower checks whether an evicted connection left room
+     * to open a new one.
+     */
+	private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getPackage().getName());
+
+	private final String name;
+	private volatile DriverConnector[] hosts;
+	private final boolean readOnly;
+	private final int minIdle;
+	private volatile int maxSize;
+	private volatile long idleTimeoutMs;
+	private final long maxLifetimeMs;
+	private final long acquireTimeoutMs;
+	private final int statementCacheSize;
+	private final String warmupQuery;
+	private final boolean lazy;
+	private final long validationThresholdMs;
+	private final int validationTimeoutSeconds;
+	private final String testQuery;
+	private final long leakDetectionThresholdMs;
+	private final double leakStackSampleRate;
+	private final CompletableFuture<Void> ready;
+
+	private final ConcurrentBag bag = new ConcurrentBag();
+	private final AtomicInteger total = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	/** The connections {@link #fill(int)} is still opening, which will be idle once open. */
+	private final AtomicInteger pendingFills = new AtomicInteger();
+	private final AtomicLong acquireTimeouts = new AtomicLong();
+	private final Ewma executeLatency = new Ewma();
+	private final LatencyHistogram acquireTimes = new LatencyHistogram();
+	private final LatencyHistogram waitTimes = new LatencyHistogram();
+	private final LatencyHistogram executeTimes = new LatencyHistogram();
+	private final LatencyHistogram closeTimes = new LatencyHistogram();
+	private final Queue<AsyncBorrow> asyncWaiters = new ConcurrentLinkedQueue<>();
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final ExecutorService connectExecutor;
+	private volatile boolean shutdown;
+
+	/**
+     * Creates a pool and opens its {@code minIdle} initial connections in parallel.
+     * 
+     * <p>Each initial connection runs the configured warm-up query, if any. When warm-up is
+     * blocking, the constructor returns once every initial connection is ready; otherwise it
+     * returns at once and {@link #ready()} tells when the pool is warm.</p>
+     * 
+     * @param config The configuration snapshot holding the credentials and pool sizes.
+     * 
+     * @throws IllegalArgumentException If the sizes are inconsistent.
+     * @throws SQLException If warm-up is blocking and one of the initial connections cannot be
+     *         opened or fails its warm-up query.
+     */
+	public ConnectionPool(DbConfig config) throws SQLException {
+		int minIdle = config.getMinIdle();
+		int maxSize = config.getMaxPoolSize();
+
+		if (minIdle < 0 || maxSize < 1 || minIdle > maxSize)
+			throw new IllegalArgumentException("Invalid pool size: min=" + minIdle + ", max=" + maxSize);
+
+		this.name = config.getName();
+		this.hosts = hosts(config);
+		this.readOnly = config.isReplica();
+		this.minIdle = minIdle;
+		this.maxSize = maxSize;
+		this.idleTimeoutMs = config.getIdleTimeoutMs();
+		this.maxLifetimeMs = config.getMaxLifetimeMs();
+		this.acquireTimeoutMs = config.getAcquireTimeoutMs();
+		this.statementCacheSize = config.getStatementCacheSize();
+		this.warmupQuery = config.getWarmupQuery();
+		this.lazy = config.isLazyConnections();
+		this.validationThresholdMs = config.getValidationThresholdMs();
+		this.validationTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getValidationTimeoutMs()));
+		this.testQuery = config.getTestQuery();
+		this.leakDetectionThresholdMs = config.getLeakDetectionThresholdMs();
+		this.leakStackSampleRate = config.getLeakStackSampleRate();
+		this.scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("db-pool-" + name + "-scheduler"));
+		this.scheduler.setRemoveOnCancelPolicy(true);
+		this.connectExecutor = Executors.newCachedThreadPool(daemonThreads("db-pool-" + name + "-connect"));
+
+		this.ready = fill(minIdle);
+		if (config.isWarmupBlocking())
+			awaitReady();
+
+		long period = config.getHousekeepingPeriodMs();
+		if (period > 0)
+			scheduler.scheduleWithFixedDelay(new HouseKeeper(this), period, period, TimeUnit.MILLISECONDS);
+
+		if (leakDetectionThresholdMs > 0) {
+			long leakPeriod = Math.max(100, leakDetectionThresholdMs / 2);
+			scheduler.scheduleWithFixedDelay(new LeakDetector(this, leakDetectionThresholdMs), leakPeriod, leakPeriod, TimeUnit.MILLISECONDS);
+		}
+
+		long probePeriod = config.getBreakerProbeMs();
+		scheduler.scheduleWithFixedDelay(new HostProber(this), probePeriod, probePeriod, TimeUnit.MILLISECONDS);
+	}
+
+	private void awaitReady() throws SQLException {
+		try {
+			ready.get();
+		} catch (ExecutionException e) {
+			shutdown();
+			Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+			if (cause instanceof SQLException)
+				throw (SQLException) cause;
+			throw new SQLException("Unable to open the initial connections.", cause);
+		} catch (InterruptedException e) {
+			shutdown();
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while opening the initial connections.", e);
+		}
+	}
+
+	/**
+     * Returns the name of the data source this pool connects to.
+     */
+	public String getName() {
+		return name;
+	}
+
+	/**
+     * Tells when the initial connections are open and warmed up.
+     * 
+     * @return A future completed once every initial connection is idle in the pool, or
+     *         completed exceptionally if one of them could not be opened or warmed up.
+     */
+	public CompletableFuture<Void> ready() {
+		return ready;
+	}
+
+	/**
+     * Opens up to {@code count} connections in parallel on pool threads, runs the warm-up
+     * query on each and adds them to the pool as idle connections. Connections that would
+     * exceed the maximum pool size are skipped.
+     * 
+     * @return A future completed once every connection is idle in the pool.
+     */
+	private CompletableFuture<Void> fill(int count) {
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[count];
+		for (int i = 0; i < count; i++) {
+			pendingFills.incrementAndGet();
+			tasks[i] = CompletableFuture.runAsync(() -> {
+				try {
+					if (!reserveSlot())
+						return;
+
+					PoolEntry entry = open();
+					warmUp(entry);
+					bag.requite(entry);
+				} catch (SQLException e) {
+					throw new CompletionException(e);
+				} finally {
+					pendingFills.decrementAndGet();
+				}
+			}, connectExecutor);
+		}
+		return CompletableFuture.allOf(tasks);
+	}
+
+	/**
+     * Returns the lifetime of a new connection: the maximum lifetime shortened by a random
+     * jitter of up to 2.5%, so connections opened together are not all retired together.
+     */
+	private long lifetime() {
+		if (maxLifetimeMs <= 0)
+			return 0;
+
+		long jitter = maxLifetimeMs / 40;
+		return jitter > 0 ? maxLifetimeMs - ThreadLocalRandom.current().nextLong(jitter) : maxLifetimeMs;
+	}
+
+	/**
+     * Opens connections on pool threads until the pool holds {@code minIdle} idle
+     * connections again, without exceeding the maximum pool size. Idle connections being
+     * validated and connections still being opened by an earlier fill count as idle, so
+     * neither makes the pool grow.
+     */
+	void fillToMinIdle() {
+		if (shutdown)
+			return;
+
+		int idle = bag.getCount(PoolEntry.STATE_NOT_IN_USE) + bag.getCount(PoolEntry.STATE_RESERVED) + pendingFills.get();
+		int missing = Math.min(maxSize - total.get(), minIdle - idle);
+		if (missing > 0)
+			fill(missing);
+	}
+
+	/**
+     * Retires a connection that reached its maximum lifetime: it is closed right away when
+     * idle, or as soon as its borrower hands it back.
+     */
+	void retire(PoolEntry entry) {
+		entry.retired = true;
+		evictIdle(entry);
+	}
+
+	/**
+     * Closes a connection if it is idle, making sure no thread borrows it meanwhile.
+     * 
+     * @return {@code true} if the connection was idle and has been closed.
+     */
+	boolean evictIdle(PoolEntry entry) {
+		if (!bag.reserve(entry))
+			return false;
+
+		evict(entry);
+		return true;
+	}
+
+	List<PoolEntry> entries() {
+		return bag.values();
+	}
+
+	public int getMinIdle() {
+		return minIdle;
+	}
+
+	/**
+     * Returns the number of connections open or being opened.
+     */
+	public int getTotalConnections() {
+		return total.get();
+	}
+
+	/**
+     * Returns the number of connections lent out to borrowers.
+     */
+	public int getActiveConnections() {
+		return inFlight.get();
+	}
+
+	/**
+     * Returns the number of connections idle in the pool.
+     */
+	public int getIdleConnections() {
+		return bag.getCount(PoolEntry.STATE_NOT_IN_USE);
+	}
+
+	/**
+     * Returns the number of borrowers waiting for another caller to hand a connection back,
+     * blocked or asynchronous.
+     */
+	public int getWaitingBorrowers() {
+		return bag.getWaitingThreadCount() + asyncWaiters.size();
+	}
+
+	/**
+     * Returns the number of borrows that timed out waiting for a connection.
+     */
+	public long getAcquireTimeouts() {
+		return acquireTimeouts.get();
+	}
+
+	public int getMaxPoolSize() {
+		return maxSize;
+	}
+
+	/**
+     * Resizes the pool at runtime.
+     * 
+     * <p>Growing lets waiting borrowers open new connections: parked asynchronous requests
+     * at once, blocked ones the next time they check for room. Shrinking closes idle
+     * connections over the new size at once, and connections in use as they are handed
+     * back.</p>
+     * 
+     * @param maxSize The new maximum number of connections.
+     * 
+     * @throws IllegalArgumentException If the size is below {@code 1} or below {@code minIdle}.
+     */
+	public void setMaxPoolSize(int maxSize) {
+		if (maxSize < 1 || minIdle > maxSize)
+			throw new IllegalArgumentException("Invalid pool size: min=" + minIdle + ", max=" + maxSize);
+
+		this.maxSize = maxSize;
+
+		for (PoolEntry entry : bag.values()) {
+			if (total.get() <= maxSize)
+				break;
+			evictIdle(entry);
+		}
+
+		for (int waiting = asyncWaiters.size(); waiting > 0 && !shutdown && reserveSlot(); waiting--)
+			openForAsyncWaiters();
+	}
+
+	/**
+     * Returns how long a connection may stay idle before the {@link HouseKeeper} closes it,
+     * {@code 0} if idle connections are kept.
+     */
+	public long getIdleTimeoutMs() {
+		return idleTimeoutMs;
+	}
+
+	/**
+     * Changes the idle timeout at runtime. It takes effect on the next housekeeping run.
+     * 
+     * @param idleTimeoutMs The new timeout in milliseconds, {@code 0} to keep idle connections.
+     * 
+     * @throws IllegalArgumentException If the timeout is negative.
+     */
+	public void setIdleTimeoutMs(long idleTimeoutMs) {
+		if (idleTimeoutMs < 0)
+			throw new IllegalArgumentException("Invalid idle timeout: " + idleTimeoutMs);
+
+		this.idleTimeoutMs = idleTimeoutMs;
+	}
+
+	/**
+     * Runs the warm-up query on a new connection, evicting it if the query fails.
+     */
+	private void warmUp(PoolEntry entry) throws SQLException {
+		if (warmupQuery == null)
+			return;
+
+		try (Statement statement = entry.connection.createStatement()) {
+			statement.execute(warmupQuery);
+			entry.connection.rollback();
+		} catch (SQLException | RuntimeException e) {
+			evict(entry);
+			throw e;
+		}
+	}
+
+	/**
+     * Borrows a connection from the pool.
+     * 
+     * @return A {@link Connection} that goes back to the pool when closed.
+     * 
+     * @throws SQLException If the pool is shut down, no connection becomes available within
+     *         the acquire timeout, or a new connection cannot be opened.
+     */
+	public Connection borrow() throws SQLException {
+		Object event = Events.beginAcquire();
+		long requestedAt = System.nanoTime();
+		long deadline = requestedAt + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+		long waited = 0;
+		try {
+			while (true) {
+
+				if (shutdown)
+					throw new SQLException("Connection pool has been shut down.");
+
+				PoolEntry entry = checked(bag.borrow(0, TimeUnit.NANOSECONDS));
+				if (entry != null)
+					return lend(entry, requestedAt, waited, event, Thread.currentThread(), borrowSite());
+
+				if (reserveSlot())
+					return lend(open(), requestedAt, waited, event, Thread.currentThread(), borrowSite());
+
+				long now = System.nanoTime();
+				long remaining = deadline - now;
+				if (remaining <= 0) {
+					acquireTimeouts.incrementAndGet();
+					throw timedOut();
+				}
+
+				entry = bag.borrow(Math.min(remaining, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+				waited += System.nanoTime() - now;
+				entry = checked(entry);
+				if (entry != null)
+					return lend(entry, requestedAt, waited, event, Thread.currentThread(), borrowSite());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a connection.", e);
+		}
+	}
+
+	/**
+     * Returns a connection that borrows from the pool only when it is first used.
+     * 
+     * <p>Code paths that open a connection and return early without touching the database
+     * never hold a pooled connection. A pool timeout surfaces from the first call that needs
+     * the database.</p>
+     * 
+     * @return A {@link Connection} that borrows lazily and goes back to the pool when closed.
+     * 
+     * @throws SQLException If the pool is shut down.
+     */
+	public Connection borrowLazy() throws SQLException {
+		if (shutdown)
+			throw new SQLException("Connection pool has been shut down.");
+
+		return new LazyConnection(this);
+	}
+
+	/**
+     * Tells whether {@code ResUtil.open()} should hand out lazy connections.
+     */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+     * Borrows a connection from the pool without blocking the calling thread, as
+     * {@link #borrowAsync(Executor)} does with the {@link ForkJoinPool#commonPool() common pool}.
+     */
+	public CompletableFuture<Connection> borrowAsync() {
+		return borrowAsync(ForkJoinPool.commonPool());
+	}
+
+	/**
+     * Borrows a connection from the pool without blocking the calling thread.
+     * 
+     * <p>An idle connection completes the future immediately, on the calling thread.
+     * Otherwise a new connection is opened on a pool thread while the pool is below its
+     * maximum size, or the request is parked in a waiter queue and served by the next
+     * connection handed back. Parked requests are served before blocked {@link #borrow()}
+     * callers.</p>
+     * 
+     * <p>A future that is not complete on return is completed on {@code executor}, so its
+     * dependent stages never run on a pool thread or inside another caller's
+     * {@code close()}. A connection that arrives after the future was cancelled, or that
+     * {@code executor} rejects, goes back to the pool.</p>
+     * 
+     * @param executor The executor completing the future and running the stages that
+     *                 depend on it.
+     * 
+     * @return A future completed with a {@link Connection} that goes back to the pool when
+     *         closed, or completed exceptionally with an {@link SQLException} if the pool is
+     *         shut down, no connection becomes available within the acquire timeout, or a new
+     *         connection cannot be opened.
+     * 
+     * @throws IllegalArgumentException If {@code executor} is {@code null}.
+     */
+	public CompletableFuture<Connection> borrowAsync(Executor executor) {
+		if (executor == null)
+			throw new IllegalArgumentException("An executor must be provided.");
+
+		AsyncBorrow future = request(Thread.currentThread(), borrowSite());
+		if (future.isDone())
+			return future;
+
+		CompletableFuture<Connection> result = new CompletableFuture<>();
+		result.whenComplete((conn, error) -> future.cancel(false));
+		future.whenComplete((conn, error) -> {
+			try {
+				executor.execute(() -> {
+					if (error != null)
+						result.completeExceptionally(error);
+					else if (!result.complete(conn))
+						closeQuietly(conn);
+				});
+			} catch (RejectedExecutionException e) {
+				if (conn != null)
+					closeQuietly(conn);
+				result.completeExceptionally(new SQLException("The executor rejected the connection.", e));
+			}
+		});
+		return result;
+	}
+
+	/**
+     * Starts an asynchronous borrow, whose future is completed on whichever thread serves it.
+     * 
+     * @param borrower The thread that asked for the connection, reported if it leaks.
+     * @param borrowSite Where it asked, or {@code null} if not sampled.
+     */
+	private AsyncBorrow request(Thread borrower, Throwable borrowSite) {
+		AsyncBorrow future = new AsyncBorrow(borrower, borrowSite);
+		try {
+
+			if (shutdown)
+				throw new SQLException("Connection pool has been shut down.");
+
+			PoolEntry entry = bag.borrow(0, TimeUnit.NANOSECONDS);
+			if (entry != null) {
+				if (needsValidation(entry, System.currentTimeMillis()))
+					validateAsync(entry, future);
+				else
+					future.complete(lend(entry, future, 0));
+				return future;
+			}
+
+			if (reserveSlot()) {
+				openAsync(future);
+				return future;
+			}
+
+			future.parkedAt = System.nanoTime();
+			asyncWaiters.add(future);
+			ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+				if (asyncWaiters.remove(future) && future.completeExceptionally(timedOut()))
+					acquireTimeouts.incrementAndGet();
+			}, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+			future.whenComplete((conn, error) -> timeout.cancel(false));
+
+			// a connection may have come back before the request was parked
+			entry = bag.borrow(0, TimeUnit.NANOSECONDS);
+			if (entry != null && !handToAsyncWaiter(entry))
+				bag.requite(entry);
+
+		} catch (SQLException | RuntimeException e) {
+			future.completeExceptionally(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(new SQLException("Interrupted while waiting for a connection.", e));
+		}
+		return future;
+	}
+
+	/**
+     * Validates a borrowed connection on a pool thread, then completes {@code future} with
+     * it, or with another connection if it turns out to be broken.
+     */
+	private void validateAsync(PoolEntry entry, AsyncBorrow future) {
+		try {
+			connectExecutor.execute(() -> {
+				PoolEntry alive = checked(entry);
+				if (alive != null) {
+					if (!future.complete(lend(alive, future, 0)))
+						release(alive);
+					return;
+				}
+
+				request(future.borrower, future.borrowSite).whenComplete((conn, error) -> {
+					if (error != null)
+						future.completeExceptionally(error);
+					else if (!future.complete(conn))
+						closeQuietly(conn);
+				});
+			});
+		} catch (RejectedExecutionException e) {
+			evict(entry);
+			future.completeExceptionally(new SQLException("Connection pool has been shut down.", e));
+		}
+	}
+
+	private static void closeQuietly(Connection conn) {
+		try {
+			conn.close();
+		} catch (SQLException ignored) {
+			// nothing more to do with a connection that fails to close
+		}
+	}
+
+	/**
+     * Tells whether a connection has gone unused long enough to be pinged before use.
+     */
+	boolean needsValidation(PoolEntry entry, long now) {
+		return validationThresholdMs >= 0
+				&& now - Math.max(entry.lastAccessed, entry.lastValidated) > validationThresholdMs;
+	}
+
+	/**
+     * Makes sure a borrowed connection still works, pinging it only if it has gone unused
+     * longer than the validation threshold. A broken connection is evicted.
+     * 
+     * @return The connection, or {@code null} if it was {@code null} or broken.
+     */
+	private PoolEntry checked(PoolEntry entry) {
+		if (entry == null)
+			return null;
+
+		long now = System.currentTimeMillis();
+		if (!needsValidation(entry, now))
+			return entry;
+
+		if (isAlive(entry)) {
+			entry.lastValidated = now;
+			return entry;
+		}
+
+		evict(entry);
+		return null;
+	}
+
+	/**
+     * Pings a connection with {@code isValid}, or with the test query when one is configured.
+     */
+	private boolean isAlive(PoolEntry entry) {
+		try {
+			if (testQuery == null)
+				return entry.connection.isValid(validationTimeoutSeconds);
+
+			try (Statement statement = entry.connection.createStatement()) {
+				statement.setQueryTimeout(validationTimeoutSeconds);
+				statement.execute(testQuery);
+			}
+			entry.connection.rollback();
+			return true;
+
+		} catch (SQLException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+     * Validates an idle connection on a pool thread, keeping it away from borrowers
+     * meanwhile. A broken connection is evicted.
+     */
+	void validateIdle(PoolEntry entry) {
+		if (!bag.reserve(entry))
+			return;
+
+		try {
+			connectExecutor.execute(() -> {
+				if (isAlive(entry)) {
+					entry.lastValidated = System.currentTimeMillis();
+					bag.requite(entry);
+				} else {
+					evict(entry);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			evict(entry);
+		}
+	}
+
+	/**
+     * Lends out a connection and reports the borrow.
+     * 
+     * @param requestedAt When the borrower asked for a connection, in {@link System#nanoTime()} units.
+     * @param waitedNanos How long the borrower waited for another caller to hand a connection back.
+     * @param event What {@link Events#beginAcquire()} returned when the borrower asked.
+     * @param borrower The thread that asked for the connection, which may not be the
+     *        current one for an asynchronous borrow.
+     * @param borrowSite Where the borrower asked, or {@code null} if not sampled.
+     */
+	private Connection lend(PoolEntry entry, long requestedAt, long waitedNanos, Object event, Thread borrower, Throwable borrowSite) {
+		long now = System.nanoTime();
+		entry.lastAccessed = System.currentTimeMillis();
+		entry.lentAt = now;
+		inFlight.incrementAndGet();
+		acquireTimes.record(now - requestedAt);
+		waitTimes.record(waitedNanos);
+		Events.acquired(event, name, waitedNanos);
+
+		if (leakDetectionThresholdMs > 0) {
+			entry.borrower = borrower;
+			entry.borrowSite = borrowSite;
+		}
+		return new ProxyConnection(this, entry);
+	}
+
+	private Connection lend(PoolEntry entry, AsyncBorrow future, long waitedNanos) {
+		return lend(entry, future.requestedAt, waitedNanos, future.event, future.borrower, future.borrowSite);
+	}
+
+	/**
+     * Captures where the calling thread borrows a connection, for the sampled fraction of
+     * borrows when leak detection is on.
+     * 
+     * @return The borrow site, or {@code null} if not sampled.
+     */
+	private Throwable borrowSite() {
+		return leakDetectionThresholdMs > 0 && leakStackSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < leakStackSampleRate
+				? new Throwable("Connection acquired here")
+				: null;
+	}
+
+	/**
+     * Opens a connection for a slot already reserved by the caller on a pool thread,
+     * then completes {@code future} with it.
+     */
+	private void openAsync(AsyncBorrow future) {
+		try {
+			connectExecutor.execute(() -> {
+				try {
+					PoolEntry entry = open();
+					if (!future.complete(lend(entry, future, 0)))
+						release(entry);
+				} catch (SQLException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			total.decrementAndGet();
+			future.completeExceptionally(new SQLException("Connection pool has been shut down.", e));
+		}
+	}
+
+	/**
+     * Gives a connection in use to the oldest parked asynchronous request.
+     * 
+     * @return {@code true} if a request took the connection.
+     */
+	private boolean handToAsyncWaiter(PoolEntry entry) {
+		AsyncBorrow waiter;
+		while ((waiter = asyncWaiters.poll()) != null) {
+			if (waiter.isDone())
+				continue;
+
+			if (waiter.complete(lend(entry, waiter, System.nanoTime() - waiter.parkedAt)))
+				return true;
+
+			// the request timed out meanwhile, so the connection was never lent out
+			inFlight.decrementAndGet();
+		}
+		return false;
+	}
+
+	private SQLException timedOut() {
+		return new SQLException("Timed out after " + acquireTimeoutMs + "ms waiting for a connection to " + name + " (max=" + maxSize + ").");
+	}
+
+	private boolean reserveSlot() {
+		for (int current = total.get(); current < maxSize; current = total.get())
+			if (total.compareAndSet(current, current + 1))
+				return true;
+		return false;
+	}
+
+	/**
+     * Opens a connection for a slot already reserved by the caller, to the first host in
+     * order of preference whose circuit breaker is closed.
+     * 
+     * @throws SQLException If every host is down, right away when every breaker is open.
+     */
+	private PoolEntry open() throws SQLException {
+		try {
+			DriverConnector[] hosts = this.hosts;
+			SQLException failure = null;
+			for (DriverConnector host : hosts) {
+				if (!host.breaker.isClosed())
+					continue;
+
+				Connection conn;
+				try {
+					conn = host.connect();
+					host.breaker.recordSuccess();
+				} catch (SQLException e) {
+					if (host.breaker.recordFailure())
+						hostDown(host);
+					if (failure == null)
+						failure = e;
+					else
+						failure.addSuppressed(e);
+					continue;
+				}
+
+				// a failed session setup is not the host's fault, so it leaves the breaker alone
+				try {
+					setUp(conn);
+					PoolEntry entry = new PoolEntry(conn, host, readOnly, statementCacheSize, lifetime());
+					// the connection settings changed while connecting
+					if (hosts != this.hosts)
+						entry.retireAt = entry.createdAt;
+					bag.add(entry);
+					return entry;
+				} catch (SQLException | RuntimeException e) {
+					closeQuietly(conn);
+					throw e;
+				}
+			}
+			throw failure != null ? failure : new SQLException("Every database host of " + name + " is unavailable.");
+
+		} catch (SQLException | RuntimeException e) {
+			total.decrementAndGet();
+			throw e;
+		}
+	}
+
+	private static DriverConnector[] hosts(DbConfig config) {
+		List<String> failoverUrls = config.getFailoverUrls();
+		DriverConnector[] hosts = new DriverConnector[failoverUrls.size() + 1];
+		for (int i = 0; i < hosts.length; i++)
+			hosts[i] = new DriverConnector(i == 0 ? config.getUrl() : failoverUrls.get(i - 1),
+					config.getUser(), config.getPass(), config.getBreakerThreshold());
+		return hosts;
+	}
+
+	/**
+     * Switches to new connection settings, such as rotated credentials or another host list.
+     * 
+     * <p>New connections use them right away. Existing connections are retired at random
+     * times within the recycle window, so the {@link HouseKeeper} replaces them a few at a
+     * time instead of reconnecting the whole pool at once.</p>
+     */
+	void reconnect(DbConfig config) {
+		hosts = hosts(config);
+
+		long now = System.currentTimeMillis();
+		long window = config.getRecycleWindowMs();
+		for (PoolEntry entry : bag.values()) {
+			long retireAt = window > 0 ? now + ThreadLocalRandom.current().nextLong(window) : now;
+			if (retireAt < entry.retireAt)
+				entry.retireAt = retireAt;
+		}
+	}
+
+	/**
+     * Retires the connections to a host whose circuit breaker just opened, so borrowers stop
+     * getting connections that are likely broken.
+     */
+	private void hostDown(DriverConnector host) {
+		LOGGER.warning("Database host " + host.getUrl() + " of " + name + " is unavailable, skipping it until a probe succeeds.");
+		for (PoolEntry entry : bag.values())
+			if (entry.host == host)
+				retire(entry);
+	}
+
+	int getHostCount() {
+		return hosts.length;
+	}
+
+	/**
+     * Tells whether at least one host may be connected to.
+     */
+	boolean isAvailable() {
+		for (DriverConnector host : hosts)
+			if (host.breaker.isClosed())
+				return true;
+		return false;
+	}
+
+	/**
+     * Tries to connect on a pool thread to a host whose circuit breaker is open. When the
+     * host answers, its breaker closes and connections to less preferred hosts are retired,
+     * so the pool moves back to the preferred host as they are replaced.
+     * 
+     * @param position The position of the host in order of preference.
+     */
+	void probe(int position) {
+		DriverConnector[] hosts = this.hosts;
+		if (shutdown || position >= hosts.length || !hosts[position].breaker.tryProbe())
+			return;
+
+		DriverConnector host = hosts[position];
+		try {
+			connectExecutor.execute(() -> {
+				boolean reachable;
+				try {
+					closeQuietly(host.connect());
+					reachable = true;
+				} catch (SQLException | RuntimeException e) {
+					reachable = false;
+				}
+				host.breaker.probed(reachable);
+				if (!reachable)
+					return;
+
+				LOGGER.info("Database host " + host.getUrl() + " of " + name + " is available again.");
+				for (PoolEntry entry : bag.values())
+					for (int i = position + 1; i < hosts.length; i++)
+						if (entry.host == hosts[i])
+							retire(entry);
+			});
+		} catch (RejectedExecutionException e) {
+			host.breaker.probed(false);
+		}
+	}
+
+	/**
+     * Hands a connection back to the pool. Pending work is rolled back and changed session
+     * properties are reset, so the next borrower starts with a clean connection.
+     */
+	void release(PoolEntry entry) {
+		returned(entry);
+		if (entry.leakReported) {
+			entry.leakReported = false;
+			LeakDetector.returned(entry);
+		}
+		entry.borrower = null;
+		entry.borrowSite = null;
+
+		try {
+			if (!entry.session.reset(entry.connection)) {
+				evict(entry);
+				return;
+			}
+		} catch (SQLException e) {
+			evict(entry);
+			return;
+		}
+
+		entry.lastAccessed = System.currentTimeMillis();
+
+		// the pool may have been shrunk while the connection was lent out
+		if (shutdown || entry.retired || total.get() > maxSize) {
+			evict(entry);
+			return;
+		}
+
+		if (!asyncWaiters.isEmpty() && handToAsyncWaiter(entry))
+			return;
+
+		bag.requite(entry);
+	}
+
+	/**
+     * Evicts a lent connection whose borrower aborted it.
+     */
+	void abort(PoolEntry entry) {
+		returned(entry);
+		evict(entry);
+	}
+
+	private void returned(PoolEntry entry) {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+     * Returns the load of the pool for routing borrows: the moving average of statement
+     * execution time, which follows the query latency of the host whatever the borrowers do
+     * between statements, scaled by the number of connections currently lent out. Lower is
+     * better.
+     */
+	double load() {
+		return (executeLatency.get() + 1) * (inFlight.get() + 1);
+	}
+
+	/**
+     * Reports a statement execution, whether it succeeded or failed.
+     * 
+     * @param startedAt When the execution started, in {@link System#nanoTime()} units.
+     * @param event What {@link Events#beginExecute()} returned when the execution started.
+     */
+	void executed(String sql, long startedAt, Object event) {
+		long nanos = System.nanoTime() - startedAt;
+		executeTimes.record(nanos);
+		executeLatency.record(nanos);
+		Events.executed(event, name, sql);
+	}
+
+	/**
+     * Reports the rows read from a result set, once it is exhausted or closed.
+     * 
+     * @param event What {@link Events#beginFetch()} returned when the result set was returned.
+     */
+	void fetched(String sql, long rows, Object event) {
+		Events.fetched(event, name, sql, rows);
+	}
+
+	/**
+     * Reports a connection handed back by its borrower.
+     * 
+     * @param startedAt When the borrower closed the connection, in {@link System#nanoTime()} units.
+     * @param heldNanos How long the borrower held the connection.
+     * @param event What {@link Events#beginClose()} returned when the borrower closed it.
+     */
+	void closed(long startedAt, long heldNanos, Object event) {
+		closeTimes.record(System.nanoTime() - startedAt);
+		Events.closed(event, name, heldNanos);
+	}
+
+	/**
+     * Returns a snapshot of the latency histograms of the pool, which count every borrow,
+     * execution and close since the pool was created.
+     */
+	public PoolLatency latency() {
+		return new PoolLatency(acquireTimes.snapshot(), waitTimes.snapshot(), executeTimes.snapshot(), closeTimes.snapshot());
+	}
+
+	/**
+     * Removes a connection from the pool and closes the physical link.
+     */
+	void evict(PoolEntry entry) {
+		if (!bag.remove(entry))
+			return;
+
+		total.decrementAndGet();
+		entry.closeQuietly();
+
+		// the freed slot goes to a parked asynchronous request, if any
+		if (!shutdown && !asyncWaiters.isEmpty() && reserveSlot())
+			openForAsyncWaiters();
+	}
+
+	/**
+     * Opens a connection for a slot already reserved by the caller on a pool thread and
+     * gives it to the oldest parked asynchronous request. A failure is dropped: the parked
+     * requests time out on their own.
+     */
+	private void openForAsyncWaiters() {
+		try {
+			connectExecutor.execute(() -> {
+				try {
+					PoolEntry entry = open();
+					if (!handToAsyncWaiter(entry))
+						bag.requite(entry);
+				} catch (SQLException | RuntimeException ignored) {
+					// parked requests time out on their own
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			total.decrementAndGet();
+		}
+	}
+
+	/**
+     * Closes every idle connection and rejects further borrows. Connections still in
+     * use are closed as they are handed back.
+     */
+	public void shutdown() {
+		shutdown = true;
+		for (PoolEntry entry : bag.values())
+			if (bag.reserve(entry))
+				evict(entry);
+
+		AsyncBorrow waiter;
+		while ((waiter = asyncWaiters.poll()) != null)
+			waiter.completeExceptionally(new SQLException("Connection pool has been shut down."));
+
+		scheduler.shutdownNow();
+		connectExecutor.shutdown();
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+     * Sets up the session of a new physical connection. The caller closes the connection
+     * if this fails.
+     */
+	private void setUp(Connection conn) throws SQLException {
+		conn.setAutoCommit(false);
+		if (readOnly)
+			conn.setReadOnly(true);
+	}
+
+	/**
+     * An asynchronous borrow, which remembers who requested it, when, and when it was parked,
+     * so the borrow can be reported once it completes on another thread.
+     */
+	private static final class AsyncBorrow extends CompletableFuture<Connection> {
+
+		final Object event = Events.beginAcquire();
+		final long requestedAt = System.nanoTime();
+		final Thread borrower;
+		final Throwable borrowSite;
+		/** Written before the request is queued, which publishes it to the completing thread. */
+		long parkedAt;
+
+		AsyncBorrow(Thread borrower, Throwable borrowSite) {
+			this.borrower = borrower;
+			this.borrowSite = borrowSite;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.db.utility.pool;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * The {@code DriverConnector} class opens physical connections straight through the
+ * JDBC {@link Driver} that accepts the configured URL.
+ * 
+ * <p>{@code DriverManager.getConnection} scans every registered driver, calling
+ * {@code acceptsURL} on each one and taking internal locks on every call. The connector
+ * asks {@code DriverManager} for the driver once, caches it, and from then on calls
+ * {@link Driver#connect(String, Properties)} directly.</p>
+ */
+final class DriverConnector {
+
+	private final String url;
+	private final Properties info = new Properties();
+	private volatile Driver driver;
+
+	/** Tells whether the host is up. */
+	final CircuitBreaker breaker;
+
+	DriverConnector(String url, String user, String pass, int breakerThreshold) {
+		this.url = url;
+		this.breaker = new CircuitBreaker(breakerThreshold);
+		if (user != null)
+			info.setProperty("user", user);
+		if (pass != null)
+			info.setProperty("password", pass);
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	/**
+     * Opens a new physical connection.
+     * 
+     * @throws SQLException If no registered driver accepts the URL or the driver fails to connect.
+     */
+	Connection connect() throws SQLException {
+		Driver current = driver;
+		if (current == null)
+			driver = current = DriverManager.getDriver(url);
+
+		// some drivers add their defaults to the properties they are given
+		Properties props = new Properties();
+		props.putAll(info);
+
+		Connection conn = current.connect(url, props);
+		if (conn == null)
+			throw new SQLException("Driver " + current.getClass().getName() + " does not accept URL " + url);
+
+		return conn;
+	}
+}
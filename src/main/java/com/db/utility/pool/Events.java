@@ -0,0 +1,90 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code Events} class reports what the pool does to Java Flight Recorder: connection
+ * borrows with their pool wait times, statement executions with their SQL, rows fetched,
+ * and connections handed back.
+ *
+ * <p>Each event is started by a {@code begin} method before the operation and ended by the
+ * matching report method after it, which receives the object the {@code begin} method
+ * returned. That object is opaque to the caller and may be {@code null}.</p>
+ *
+ * <p>The flight recorder API does not exist before Java 11, so this version reports
+ * nothing. The multi-release JAR ships a Java 11 version of this class under
+ * {@code META-INF/versions/11} that commits the events, and costs next to nothing while
+ * the events are disabled.</p>
+ */
+final class Events {
+
+	private Events() {
+	}
+
+	/**
+     * Starts a connection borrow.
+     */
+	static Object beginAcquire() {
+		return null;
+	}
+
+	/**
+     * Reports a borrowed connection.
+     *
+     * @param event What {@link #beginAcquire()} returned.
+     * @param dataSource The name of the data source.
+     * @param waitNanos How long the borrower waited for another caller to hand a connection back.
+     */
+	static void acquired(Object event, String dataSource, long waitNanos) {
+	}
+
+	/**
+     * Starts a statement execution.
+     */
+	static Object beginExecute() {
+		return null;
+	}
+
+	/**
+     * Reports a statement execution.
+     *
+     * @param event What {@link #beginExecute()} returned.
+     * @param dataSource The name of the data source.
+     * @param sql The SQL executed, the first of the batch for a batch.
+     */
+	static void executed(Object event, String dataSource, String sql) {
+	}
+
+	/**
+     * Starts reading a result set, when the statement returns it.
+     */
+	static Object beginFetch() {
+		return null;
+	}
+
+	/**
+     * Reports the rows read from a result set.
+     *
+     * @param event What {@link #beginFetch()} returned.
+     * @param dataSource The name of the data source.
+     * @param sql The SQL that returned the result set.
+     * @param rows The number of rows read.
+     */
+	static void fetched(Object event, String dataSource, String sql, long rows) {
+	}
+
+	/**
+     * Starts handing a connection back to the pool.
+     */
+	static Object beginClose() {
+		return null;
+	}
+
+	/**
+     * Reports a connection handed back to the pool.
+     *
+     * @param event What {@link #beginClose()} returned.
+     * @param dataSource The name of the data source.
+     * @param heldNanos How long the borrower held it.
+     */
+	static void closed(Object event, String dataSource, long heldNanos) {
+	}
+}
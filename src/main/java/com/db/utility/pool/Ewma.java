@@ -0,0 +1,44 @@
+package com.db.utility.pool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Ewma} class keeps an exponentially weighted moving average of durations,
+ * where each sample weighs according to the time elapsed since the previous one.
+ *
+ * <p>The average also decays towards zero while no sample comes in, so a host that was
+ * slow a while ago and has been avoided since gets traffic again, and a new sample tells
+ * whether it recovered.</p>
+ *
+ * <p>Updates are not atomic: two threads recording at once may lose one of the samples.
+ * That is harmless for a load-balancing hint and keeps recording free of locks and
+ * allocations.</p>
+ */
+final class Ewma {
+
+	private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private volatile double value;
+	private volatile long stamp = System.nanoTime();
+
+	/**
+     * Adds a sample to the average.
+     *
+     * @param nanos The sampled duration, in nanoseconds.
+     */
+	void record(long nanos) {
+		long now = System.nanoTime();
+		double weight = Math.exp(-Math.max(0, now - stamp) / DECAY_NANOS);
+		value = value * weight + nanos * (1 - weight);
+		stamp = now;
+	}
+
+	/**
+     * Returns the current average, decayed by the time elapsed since the last sample.
+     *
+     * @return The average duration, in nanoseconds.
+     */
+	double get() {
+		return value * Math.exp(-Math.max(0, System.nanoTime() - stamp) / DECAY_NANOS);
+	}
+}
@@ -0,0 +1,30 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code HostProber} class is the periodic task that probes the database hosts whose
+ * {@link CircuitBreaker} is open.
+ *
+ * <p>Each probe opens and closes a connection on a pool thread, so a host that hangs
+ * until the connect timeout holds up neither the scheduler nor borrowers. A host that
+ * answers is used again, and connections to less preferred hosts are retired so the pool
+ * fails back to the preferred one.</p>
+ */
+final class HostProber implements Runnable {
+
+	private final ConnectionPool pool;
+
+	HostProber(ConnectionPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void run() {
+		try {
+			for (int host = 0; host < pool.getHostCount(); host++)
+				pool.probe(host);
+
+		} catch (RuntimeException e) {
+			// keep the task scheduled; the next run tries again
+		}
+	}
+}
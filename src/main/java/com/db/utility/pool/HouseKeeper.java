@@ -0,0 +1,54 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code HouseKeeper} class is the periodic task that manages the lifecycle of
+ * pooled connections.
+ * 
+ * <p>On every run it retires connections that reached their maximum lifetime, closes
+ * connections that stayed idle longer than the idle timeout while more than
+ * {@code minIdle} connections are idle, pings idle connections past the validation threshold,
+ * and then tops the pool back up to {@code minIdle} idle connections. Pings and new
+ * connections run on pool threads, so neither the housekeeper nor borrowers wait for
+ * them.</p>
+ */
+final class HouseKeeper implements Runnable {
+
+	private final ConnectionPool pool;
+
+	HouseKeeper(ConnectionPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void run() {
+		try {
+			long now = System.currentTimeMillis();
+			long idleTimeoutMs = pool.getIdleTimeoutMs();
+
+			for (PoolEntry entry : pool.entries()) {
+
+				if (now >= entry.retireAt) {
+					pool.retire(entry);
+					continue;
+				}
+
+				if (entry.getState() != PoolEntry.STATE_NOT_IN_USE)
+					continue;
+
+				if (idleTimeoutMs > 0
+						&& now - entry.lastAccessed > idleTimeoutMs
+						&& pool.getIdleConnections() > pool.getMinIdle()
+						&& pool.evictIdle(entry))
+					continue;
+
+				if (pool.needsValidation(entry, now))
+					pool.validateIdle(entry);
+			}
+
+			pool.fillToMinIdle();
+
+		} catch (RuntimeException e) {
+			// keep the task scheduled; the next run tries again
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.db.utility.pool;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code LatencyHistogram} class counts durations in log-linear buckets, in the manner
+ * of HdrHistogram, so percentiles can be read without keeping every sample.
+ *
+ * <p>Durations below 32ns each have their own bucket. Above that, every power of two is
+ * split into 32 buckets, so a percentile is off by at most 1/32 (about 3%) of its value.
+ * Durations above {@link #HIGHEST_VALUE}, about 36 minutes, are counted in the last
+ * bucket. The buckets take a fixed 9.5 KB whatever the number of samples.</p>
+ *
+ * <p>{@link #record(long)} increments one slot of an {@link AtomicLongArray}: it takes no
+ * lock, allocates nothing and may be called from any thread. A {@link Snapshot} copies the
+ * buckets one at a time while recording goes on, so it may miss the samples recorded
+ * during the copy, which the next snapshot includes.</p>
+ */
+public final class LatencyHistogram {
+
+	private static final int PRECISION_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKETS = SUB_BUCKETS * (MAX_EXPONENT - PRECISION_BITS + 2);
+
+	/**
+     * The highest duration told apart from longer ones, in nanoseconds.
+     */
+	public static final long HIGHEST_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+     * Counts a duration.
+     *
+     * @param nanos The duration, in nanoseconds. A negative duration counts as {@code 0}.
+     */
+	public void record(long nanos) {
+		counts.incrementAndGet(index(nanos));
+	}
+
+	/**
+     * Copies the counts recorded so far.
+     */
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			copy[i] = counts.get(i);
+		return new Snapshot(copy);
+	}
+
+	private static int index(long value) {
+		if (value < SUB_BUCKETS)
+			return value < 0 ? 0 : (int) value;
+
+		long clamped = Math.min(value, HIGHEST_VALUE);
+		int shift = 63 - Long.numberOfLeadingZeros(clamped) - PRECISION_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (clamped >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+     * Returns the highest duration counted in a bucket.
+     */
+	private static long highestValue(int index) {
+		if (index < 2 * SUB_BUCKETS)
+			return index;
+
+		int shift = index / SUB_BUCKETS - 1;
+		long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+     * The {@code Snapshot} class is an immutable copy of the counts of a
+     * {@link LatencyHistogram}. Durations are in nanoseconds.
+     */
+	public static final class Snapshot {
+
+		/**
+         * A snapshot with no samples.
+         */
+		public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS]);
+
+		private final long[] counts;
+		private final long count;
+
+		private Snapshot(long[] counts) {
+			long total = 0;
+			for (long bucket : counts)
+				total += bucket;
+			this.counts = counts;
+			this.count = total;
+		}
+
+		/**
+         * Returns the number of samples.
+         */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+         * Returns the duration that {@code percentile} percent of the samples do not exceed,
+         * rounded up to the highest duration of its bucket.
+         *
+         * @param percentile The percentile, between {@code 0} and {@code 100}.
+         *
+         * @return The duration, or {@code 0} if there are no samples.
+         *
+         * @throws IllegalArgumentException If the percentile is out of range.
+         */
+		public long getValueAtPercentile(double percentile) {
+			if (!(percentile >= 0 && percentile <= 100))
+				throw new IllegalArgumentException("Percentile " + percentile + " is not between 0 and 100.");
+
+			if (count == 0)
+				return 0;
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank)
+					return highestValue(i);
+			}
+			return HIGHEST_VALUE;
+		}
+
+		/**
+         * Returns the median duration, as {@link #getValueAtPercentile(double)} does.
+         */
+		public long getP50() {
+			return getValueAtPercentile(50);
+		}
+
+		/**
+         * Returns the 99th percentile, as {@link #getValueAtPercentile(double)} does.
+         */
+		public long getP99() {
+			return getValueAtPercentile(99);
+		}
+
+		/**
+         * Returns the 99.9th percentile, as {@link #getValueAtPercentile(double)} does.
+         */
+		public long getP999() {
+			return getValueAtPercentile(99.9);
+		}
+
+		/**
+         * Returns the longest duration, rounded up to the highest duration of its bucket.
+         */
+		public long getMax() {
+			return getValueAtPercentile(100);
+		}
+
+		/**
+         * Combines the samples of two snapshots, such as those of several pools.
+         */
+		public Snapshot add(Snapshot other) {
+			long[] sum = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++)
+				sum[i] = counts[i] + other.counts[i];
+			return new Snapshot(sum);
+		}
+
+		/**
+         * Returns the samples recorded since an earlier snapshot of the same histogram, so
+         * percentiles can be read over an interval without resetting the histogram.
+         */
+		public Snapshot since(Snapshot earlier) {
+			long[] difference = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++)
+				difference[i] = Math.max(0, counts[i] - earlier.counts[i]);
+			return new Snapshot(difference);
+		}
+
+		@Override
+		public String toString() {
+			return "Snapshot[count=" + count + ", p50=" + getP50() + "ns, p99=" + getP99() + "ns, p999=" + getP999() + "ns, max=" + getMax() + "ns]";
+		}
+	}
+}
@@ -0,0 +1,405 @@
+package com.db.utility.pool;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@code LazyConnection} class is the {@link Connection} handed out by the
+ * {@link ConnectionPool} in lazy mode.
+ * 
+ * <p>It borrows a pooled connection only when the caller first needs the database:
+ * creating a statement, reading metadata, or any call that cannot be answered locally.
+ * Auto-commit, read-only and isolation settings made before that are remembered and
+ * applied to the connection once it is borrowed, and {@code commit()} or {@code rollback()}
+ * with nothing borrowed do nothing. Closing a lazy connection that never borrowed
+ * anything costs nothing; otherwise it hands the borrowed connection back.</p>
+ * 
+ * <p>Because borrowing is deferred, a pool timeout surfaces as an {@link SQLException}
+ * from the first call that needs the database rather than from {@code open()}.</p>
+ */
+final class LazyConnection implements Connection {
+
+	private final ConnectionPool pool;
+	private Connection target;
+	private Boolean autoCommit;
+	private Boolean readOnly;
+	private Integer isolation;
+	private boolean closed;
+
+	LazyConnection(ConnectionPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+     * Returns the borrowed connection, borrowing it from the pool on first use and
+     * applying the settings made so far.
+     */
+	private Connection target() throws SQLException {
+		if (closed)
+			throw new SQLException("Connection is closed.");
+
+		if (target == null) {
+			Connection conn = pool.borrow();
+			try {
+				if (autoCommit != null)
+					conn.setAutoCommit(autoCommit);
+				if (readOnly != null)
+					conn.setReadOnly(readOnly);
+				if (isolation != null)
+					conn.setTransactionIsolation(isolation);
+			} catch (SQLException | RuntimeException e) {
+				conn.close();
+				throw e;
+			}
+			target = conn;
+		}
+		return target;
+	}
+
+	/**
+     * Hands the borrowed connection back to the pool, if any. Calling it more than once has no effect.
+     */
+	@Override
+	public void close() throws SQLException {
+		if (closed)
+			return;
+
+		closed = true;
+		if (target != null)
+			target.close();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || (target != null && target.isClosed());
+	}
+
+	@Override
+	public boolean isValid(int timeout) throws SQLException {
+		if (closed)
+			return false;
+
+		return target == null || target.isValid(timeout);
+	}
+
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+		if (target == null && !closed)
+			this.autoCommit = autoCommit;
+		else
+			target().setAutoCommit(autoCommit);
+	}
+
+	@Override
+	public boolean getAutoCommit() throws SQLException {
+		if (target == null && !closed)
+			return autoCommit != null && autoCommit;
+
+		return target().getAutoCommit();
+	}
+
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException {
+		if (target == null && !closed)
+			this.readOnly = readOnly;
+		else
+			target().setReadOnly(readOnly);
+	}
+
+	@Override
+	public boolean isReadOnly() throws SQLException {
+		if (target == null && !closed && readOnly != null)
+			return readOnly;
+
+		return target().isReadOnly();
+	}
+
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException {
+		if (target == null && !closed)
+			this.isolation = level;
+		else
+			target().setTransactionIsolation(level);
+	}
+
+	@Override
+	public int getTransactionIsolation() throws SQLException {
+		if (target == null && !closed && isolation != null)
+			return isolation;
+
+		return target().getTransactionIsolation();
+	}
+
+	/**
+     * Commits the borrowed connection; with nothing borrowed there is nothing to commit.
+     */
+	@Override
+	public void commit() throws SQLException {
+		if (target != null || closed)
+			target().commit();
+	}
+
+	/**
+     * Rolls back the borrowed connection; with nothing borrowed there is nothing to roll back.
+     */
+	@Override
+	public void rollback() throws SQLException {
+		if (target != null || closed)
+			target().rollback();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		if (target == null && !closed)
+			return null;
+
+		return target().getWarnings();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		if (target != null || closed)
+			target().clearWarnings();
+	}
+
+	@Override
+	public void setClientInfo(String name, String value) throws SQLClientInfoException {
+		try {
+			target().setClientInfo(name, value);
+		} catch (SQLClientInfoException e) {
+			throw e;
+		} catch (SQLException e) {
+			throw new SQLClientInfoException(e.getMessage(), null, e);
+		}
+	}
+
+	@Override
+	public void setClientInfo(Properties properties) throws SQLClientInfoException {
+		try {
+			target().setClientInfo(properties);
+		} catch (SQLClientInfoException e) {
+			throw e;
+		} catch (SQLException e) {
+			throw new SQLClientInfoException(e.getMessage(), null, e);
+		}
+	}
+
+	@Override
+	public void abort(Executor executor) throws SQLException {
+		if (closed)
+			return;
+
+		closed = true;
+		if (target != null)
+			target.abort(executor);
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this))
+			return iface.cast(this);
+
+		return target().unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || target().isWrapperFor(iface);
+	}
+
+	@Override
+	public Statement createStatement() throws SQLException {
+		return target().createStatement();
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+		return target().createStatement(resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return target().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		return target().prepareStatement(sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return target().prepareStatement(sql, resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return target().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		return target().prepareStatement(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+		return target().prepareStatement(sql, columnIndexes);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+		return target().prepareStatement(sql, columnNames);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+		return target().prepareCall(sql);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return target().prepareCall(sql, resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return target().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public String nativeSQL(String sql) throws SQLException {
+		return target().nativeSQL(sql);
+	}
+
+	@Override
+	public void rollback(Savepoint savepoint) throws SQLException {
+		target().rollback(savepoint);
+	}
+
+	@Override
+	public DatabaseMetaData getMetaData() throws SQLException {
+		return target().getMetaData();
+	}
+
+	@Override
+	public void setCatalog(String catalog) throws SQLException {
+		target().setCatalog(catalog);
+	}
+
+	@Override
+	public String getCatalog() throws SQLException {
+		return target().getCatalog();
+	}
+
+	@Override
+	public Map<String, Class<?>> getTypeMap() throws SQLException {
+		return target().getTypeMap();
+	}
+
+	@Override
+	public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+		target().setTypeMap(map);
+	}
+
+	@Override
+	public void setHoldability(int holdability) throws SQLException {
+		target().setHoldability(holdability);
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return target().getHoldability();
+	}
+
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+		return target().setSavepoint();
+	}
+
+	@Override
+	public Savepoint setSavepoint(String name) throws SQLException {
+		return target().setSavepoint(name);
+	}
+
+	@Override
+	public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+		target().releaseSavepoint(savepoint);
+	}
+
+	@Override
+	public Clob createClob() throws SQLException {
+		return target().createClob();
+	}
+
+	@Override
+	public Blob createBlob() throws SQLException {
+		return target().createBlob();
+	}
+
+	@Override
+	public NClob createNClob() throws SQLException {
+		return target().createNClob();
+	}
+
+	@Override
+	public SQLXML createSQLXML() throws SQLException {
+		return target().createSQLXML();
+	}
+
+	@Override
+	public String getClientInfo(String name) throws SQLException {
+		return target().getClientInfo(name);
+	}
+
+	@Override
+	public Properties getClientInfo() throws SQLException {
+		return target().getClientInfo();
+	}
+
+	@Override
+	public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+		return target().createArrayOf(typeName, elements);
+	}
+
+	@Override
+	public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+		return target().createStruct(typeName, attributes);
+	}
+
+	@Override
+	public void setSchema(String schema) throws SQLException {
+		target().setSchema(schema);
+	}
+
+	@Override
+	public String getSchema() throws SQLException {
+		return target().getSchema();
+	}
+
+	@Override
+	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+		target().setNetworkTimeout(executor, milliseconds);
+	}
+
+	@Override
+	public int getNetworkTimeout() throws SQLException {
+		return target().getNetworkTimeout();
+	}
+}
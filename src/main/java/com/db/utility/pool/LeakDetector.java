@@ -0,0 +1,68 @@
+package com.db.utility.pool;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code LeakDetector} class is the periodic task that reports connections held
+ * longer than the leak detection threshold, which usually means the caller forgot to
+ * close them.
+ * 
+ * <p>Each borrow is reported at most once, as a warning on the {@code com.db.utility.pool}
+ * logger. Capturing the stack trace of every borrow would be too expensive to leave on in
+ * production, so the acquiring call site is only recorded for a sampled fraction of
+ * borrows; the report of a sampled borrow carries its stack trace.</p>
+ */
+final class LeakDetector implements Runnable {
+
+	static final Logger LOGGER = Logger.getLogger(LeakDetector.class.getPackage().getName());
+
+	private final ConnectionPool pool;
+	private final long thresholdMs;
+
+	LeakDetector(ConnectionPool pool, long thresholdMs) {
+		this.pool = pool;
+		this.thresholdMs = thresholdMs;
+	}
+
+	@Override
+	public void run() {
+		try {
+			long now = System.currentTimeMillis();
+
+			for (PoolEntry entry : pool.entries()) {
+				if (entry.getState() != PoolEntry.STATE_IN_USE || entry.leakReported)
+					continue;
+
+				long heldMs = now - entry.lastAccessed;
+				if (heldMs <= thresholdMs)
+					continue;
+
+				entry.leakReported = true;
+				report(entry, heldMs);
+			}
+
+		} catch (RuntimeException e) {
+			// keep the task scheduled; the next run tries again
+		}
+	}
+
+	private static void report(PoolEntry entry, long heldMs) {
+		Thread borrower = entry.borrower;
+		String message = "Possible connection leak: " + entry.connection + " has been held for "
+				+ heldMs + "ms by thread " + (borrower == null ? "?" : borrower.getName());
+
+		Throwable site = entry.borrowSite;
+		if (site == null)
+			LOGGER.warning(message + " (call site not sampled, raise POOL_LEAK_STACK_SAMPLE_RATE to capture it)");
+		else
+			LOGGER.log(Level.WARNING, message, site);
+	}
+
+	/**
+     * Logs that a connection reported as leaked was eventually handed back.
+     */
+	static void returned(PoolEntry entry) {
+		LOGGER.info("Connection " + entry.connection + " previously reported as leaked has been returned.");
+	}
+}
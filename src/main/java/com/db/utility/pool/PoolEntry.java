@@ -0,0 +1,90 @@
+package com.db.utility.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * The {@code PoolEntry} class holds one physical connection owned by a
+ * {@link ConnectionPool}, together with the bookkeeping the pool needs for it.
+ * 
+ * <p>Ownership of an entry is decided by a compare-and-set on its {@code state}, so
+ * the {@link ConcurrentBag} never needs a lock to hand it out.</p>
+ */
+final class PoolEntry {
+
+	static final int STATE_NOT_IN_USE = 0;
+	static final int STATE_IN_USE = 1;
+	static final int STATE_REMOVED = -1;
+	static final int STATE_RESERVED = -2;
+
+	private static final AtomicIntegerFieldUpdater<PoolEntry> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(PoolEntry.class, "state");
+
+	final Connection connection;
+	final StatementCache statements;
+	final SessionState session;
+	/** The host the connection goes to. */
+	final DriverConnector host;
+	final long createdAt;
+	volatile long retireAt;
+	volatile long lastAccessed;
+	volatile long lastValidated;
+	volatile boolean retired;
+
+	/** When the current borrow started, in {@link System#nanoTime()} units. */
+	volatile long lentAt;
+
+	/** Leak detection state of the current borrow. */
+	volatile Thread borrower;
+	volatile Throwable borrowSite;
+	volatile boolean leakReported;
+
+	private volatile int state;
+
+	/**
+     * Creates an entry already marked as in use, so the thread that opened the
+     * connection owns it.
+     * 
+     * @param host The host the connection goes to.
+     * @param readOnly Whether the connection was opened read-only.
+     * @param statementCacheSize The number of prepared statements to cache, {@code 0} to disable caching.
+     * @param lifetimeMs How long the connection may live, {@code 0} for no limit.
+     * 
+     * @throws SQLException If the initial session state cannot be read.
+     */
+	PoolEntry(Connection connection, DriverConnector host, boolean readOnly, int statementCacheSize, long lifetimeMs) throws SQLException {
+		this.connection = connection;
+		this.host = host;
+		this.session = new SessionState(connection, readOnly);
+		this.statements = statementCacheSize > 0 ? new StatementCache(statementCacheSize) : null;
+		this.createdAt = System.currentTimeMillis();
+		this.retireAt = lifetimeMs > 0 ? createdAt + lifetimeMs : Long.MAX_VALUE;
+		this.lastAccessed = createdAt;
+		this.state = STATE_IN_USE;
+	}
+
+	int getState() {
+		return state;
+	}
+
+	void setState(int newState) {
+		state = newState;
+	}
+
+	boolean compareAndSet(int expect, int update) {
+		return STATE.compareAndSet(this, expect, update);
+	}
+
+	/**
+     * Closes the physical connection, ignoring any failure since the entry is
+     * being discarded anyway.
+     */
+	void closeQuietly() {
+		try {
+			connection.close();
+		} catch (Exception ignored) {
+			// the connection is being discarded
+		}
+	}
+}
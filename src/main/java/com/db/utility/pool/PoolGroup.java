@@ -0,0 +1,133 @@
+package com.db.utility.pool;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.db.utility.config.DbConfig;
+
+/**
+ * The {@code PoolGroup} class holds the connection pools of one data source: the pool of
+ * the primary database, which serves writes, and one pool per read replica.
+ *
+ * <p>{@link #replica()} sends each read-only borrow to the least loaded replica: the one
+ * with the lowest moving average of statement execution time, which follows its query
+ * latency, weighted by the connections it currently has lent out. A slow replica thus gets less
+ * traffic instead of dragging down every read. Replicas whose host is down are skipped, and
+ * a data source without replicas, or whose replicas are all down, serves reads from the
+ * primary.</p>
+ */
+public class PoolGroup {
+
+	private final ConnectionPool primary;
+	private final ConnectionPool[] replicas;
+
+	/**
+     * Creates the pool of the primary database and of every read replica.
+     *
+     * @param config The configuration snapshot of the data source.
+     *
+     * @throws IllegalArgumentException If the sizes are inconsistent.
+     * @throws SQLException If warm-up is blocking and one of the pools cannot open its initial
+     *         connections. The pools already created are shut down.
+     */
+	public PoolGroup(DbConfig config) throws SQLException {
+		this.primary = new ConnectionPool(config);
+		this.replicas = new ConnectionPool[config.getReplicaUrls().size()];
+
+		try {
+			for (int i = 0; i < replicas.length; i++)
+				replicas[i] = new ConnectionPool(config.replica(i));
+		} catch (SQLException | RuntimeException e) {
+			shutdown();
+			throw e;
+		}
+	}
+
+	/**
+     * Returns the pool of the primary database.
+     */
+	public ConnectionPool primary() {
+		return primary;
+	}
+
+	/**
+     * Returns the pool to borrow a read-only connection from: the least loaded replica
+     * that is up, or the primary when the data source has no replicas or every replica is
+     * down.
+     */
+	public ConnectionPool replica() {
+		if (replicas.length == 0)
+			return primary;
+
+		// start the scan at a random replica, so ties do not all go to the first one
+		int start = replicas.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(replicas.length);
+		ConnectionPool best = null;
+		double bestLoad = Double.MAX_VALUE;
+		for (int i = 0; i < replicas.length; i++) {
+			ConnectionPool candidate = replicas[(start + i) % replicas.length];
+			if (!candidate.isAvailable())
+				continue;
+
+			double load = candidate.load();
+			if (load < bestLoad) {
+				best = candidate;
+				bestLoad = load;
+			}
+		}
+		return best != null ? best : primary;
+	}
+
+	/**
+     * Returns the pool of the primary database followed by the pools of the replicas.
+     */
+	ConnectionPool[] pools() {
+		ConnectionPool[] pools = new ConnectionPool[replicas.length + 1];
+		pools[0] = primary;
+		System.arraycopy(replicas, 0, pools, 1, replicas.length);
+		return pools;
+	}
+
+	/**
+     * Switches every pool of the data source to new connection settings, recycling the
+     * existing connections gradually.
+     *
+     * @param config The new configuration snapshot, with the same pool settings.
+     */
+	public void reconnect(DbConfig config) {
+		primary.reconnect(config);
+		for (int i = 0; i < replicas.length; i++)
+			replicas[i].reconnect(config.replica(i));
+	}
+
+	/**
+     * Tells when the initial connections of every pool are open and warmed up.
+     */
+	public CompletableFuture<Void> ready() {
+		CompletableFuture<?>[] pools = new CompletableFuture<?>[replicas.length + 1];
+		pools[0] = primary.ready();
+		for (int i = 0; i < replicas.length; i++)
+			pools[i + 1] = replicas[i].ready();
+		return CompletableFuture.allOf(pools);
+	}
+
+	/**
+     * Returns a snapshot of the latency histograms of every pool of the data source combined.
+     */
+	public PoolLatency latency() {
+		PoolLatency latency = primary.latency();
+		for (ConnectionPool replica : replicas)
+			latency = latency.add(replica.latency());
+		return latency;
+	}
+
+	/**
+     * Shuts down every pool of the data source.
+     */
+	public void shutdown() {
+		primary.shutdown();
+		for (ConnectionPool replica : replicas)
+			if (replica != null)
+				replica.shutdown();
+	}
+}
@@ -0,0 +1,72 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code PoolLatency} class is an immutable snapshot of the latency histograms of a
+ * pool, or of every pool of a data source combined. Durations are in nanoseconds.
+ *
+ * <ul>
+ * <li>{@link #getAcquire()}: how long borrows took, waiting included.</li>
+ * <li>{@link #getWait()}: how long borrowers waited for another caller to hand a
+ * connection back.</li>
+ * <li>{@link #getExecute()}: how long statement executions took.</li>
+ * <li>{@link #getClose()}: how long handing connections back took.</li>
+ * </ul>
+ */
+public final class PoolLatency {
+
+	/**
+     * A snapshot with no samples.
+     */
+	public static final PoolLatency EMPTY = new PoolLatency(LatencyHistogram.Snapshot.EMPTY, LatencyHistogram.Snapshot.EMPTY,
+			LatencyHistogram.Snapshot.EMPTY, LatencyHistogram.Snapshot.EMPTY);
+
+	private final LatencyHistogram.Snapshot acquire;
+	private final LatencyHistogram.Snapshot wait;
+	private final LatencyHistogram.Snapshot execute;
+	private final LatencyHistogram.Snapshot close;
+
+	PoolLatency(LatencyHistogram.Snapshot acquire, LatencyHistogram.Snapshot wait,
+			LatencyHistogram.Snapshot execute, LatencyHistogram.Snapshot close) {
+		this.acquire = acquire;
+		this.wait = wait;
+		this.execute = execute;
+		this.close = close;
+	}
+
+	public LatencyHistogram.Snapshot getAcquire() {
+		return acquire;
+	}
+
+	public LatencyHistogram.Snapshot getWait() {
+		return wait;
+	}
+
+	public LatencyHistogram.Snapshot getExecute() {
+		return execute;
+	}
+
+	public LatencyHistogram.Snapshot getClose() {
+		return close;
+	}
+
+	/**
+     * Combines the samples of two snapshots, such as those of a primary and its replicas.
+     */
+	public PoolLatency add(PoolLatency other) {
+		return new PoolLatency(acquire.add(other.acquire), wait.add(other.wait),
+				execute.add(other.execute), close.add(other.close));
+	}
+
+	/**
+     * Returns the samples recorded since an earlier snapshot of the same pools.
+     */
+	public PoolLatency since(PoolLatency earlier) {
+		return new PoolLatency(acquire.since(earlier.acquire), wait.since(earlier.wait),
+				execute.since(earlier.execute), close.since(earlier.close));
+	}
+
+	@Override
+	public String toString() {
+		return "PoolLatency[acquire=" + acquire + ", wait=" + wait + ", execute=" + execute + ", close=" + close + "]";
+	}
+}
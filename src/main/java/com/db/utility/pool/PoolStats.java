@@ -0,0 +1,185 @@
+package com.db.utility.pool;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The {@code PoolStats} class is the JMX MBean of a data source, which reports the state
+ * of its pools and lets operators resize them at runtime. See {@link PoolStatsMBean} for
+ * its attributes.
+ *
+ * <p>Registration failures are logged rather than thrown, so monitoring never keeps the
+ * application from borrowing connections.</p>
+ */
+public final class PoolStats implements PoolStatsMBean {
+
+	private static final Logger LOGGER = Logger.getLogger(PoolStats.class.getPackage().getName());
+
+	private static final double NANOS_PER_MILLI = 1_000_000;
+
+	private final PoolGroup group;
+
+	PoolStats(PoolGroup group) {
+		this.group = group;
+	}
+
+	/**
+     * Registers the MBean of a data source with the platform MBean server, replacing the
+     * MBean of the pools it had before, if any.
+     *
+     * @param name The data source name.
+     * @param group The pools of the data source.
+     */
+	public static void register(String name, PoolGroup group) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = objectName(name);
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+			server.registerMBean(new PoolStats(group), objectName);
+		} catch (JMException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Unable to register the MBean of data source " + name + ".", e);
+		}
+	}
+
+	/**
+     * Unregisters the MBean of a data source, if it is registered.
+     *
+     * @param name The data source name.
+     */
+	public static void unregister(String name) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = objectName(name);
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+		} catch (JMException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Unable to unregister the MBean of data source " + name + ".", e);
+		}
+	}
+
+	private static ObjectName objectName(String name) throws JMException {
+		return new ObjectName("com.db.utility:type=DataSource,name=" + ObjectName.quote(name));
+	}
+
+	@Override
+	public int getActiveConnections() {
+		int count = 0;
+		for (ConnectionPool pool : group.pools())
+			count += pool.getActiveConnections();
+		return count;
+	}
+
+	@Override
+	public int getIdleConnections() {
+		int count = 0;
+		for (ConnectionPool pool : group.pools())
+			count += pool.getIdleConnections();
+		return count;
+	}
+
+	@Override
+	public int getTotalConnections() {
+		int count = 0;
+		for (ConnectionPool pool : group.pools())
+			count += pool.getTotalConnections();
+		return count;
+	}
+
+	@Override
+	public int getWaitingBorrowers() {
+		int count = 0;
+		for (ConnectionPool pool : group.pools())
+			count += pool.getWaitingBorrowers();
+		return count;
+	}
+
+	@Override
+	public long getAcquireTimeouts() {
+		long count = 0;
+		for (ConnectionPool pool : group.pools())
+			count += pool.getAcquireTimeouts();
+		return count;
+	}
+
+	@Override
+	public double getAcquireP50Millis() {
+		return millis(group.latency().getAcquire().getP50());
+	}
+
+	@Override
+	public double getAcquireP99Millis() {
+		return millis(group.latency().getAcquire().getP99());
+	}
+
+	@Override
+	public double getAcquireP999Millis() {
+		return millis(group.latency().getAcquire().getP999());
+	}
+
+	@Override
+	public double getWaitP50Millis() {
+		return millis(group.latency().getWait().getP50());
+	}
+
+	@Override
+	public double getWaitP99Millis() {
+		return millis(group.latency().getWait().getP99());
+	}
+
+	@Override
+	public double getWaitP999Millis() {
+		return millis(group.latency().getWait().getP999());
+	}
+
+	@Override
+	public double getExecuteP50Millis() {
+		return millis(group.latency().getExecute().getP50());
+	}
+
+	@Override
+	public double getExecuteP99Millis() {
+		return millis(group.latency().getExecute().getP99());
+	}
+
+	@Override
+	public double getExecuteP999Millis() {
+		return millis(group.latency().getExecute().getP999());
+	}
+
+	@Override
+	public int getMinIdle() {
+		return group.primary().getMinIdle();
+	}
+
+	@Override
+	public int getMaxPoolSize() {
+		return group.primary().getMaxPoolSize();
+	}
+
+	@Override
+	public void setMaxPoolSize(int maxPoolSize) {
+		for (ConnectionPool pool : group.pools())
+			pool.setMaxPoolSize(maxPoolSize);
+	}
+
+	@Override
+	public long getIdleTimeoutMs() {
+		return group.primary().getIdleTimeoutMs();
+	}
+
+	@Override
+	public void setIdleTimeoutMs(long idleTimeoutMs) {
+		for (ConnectionPool pool : group.pools())
+			pool.setIdleTimeoutMs(idleTimeoutMs);
+	}
+
+	private static double millis(long nanos) {
+		return nanos / NANOS_PER_MILLI;
+	}
+}
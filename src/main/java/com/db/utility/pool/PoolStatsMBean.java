@@ -0,0 +1,90 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code PoolStatsMBean} interface is the JMX management interface of a data source,
+ * registered as {@code com.db.utility:type=DataSource,name="<name>"}.
+ *
+ * <p>Connection counts are summed over the pool of the primary database and the pools of
+ * its read replicas. Percentiles are in milliseconds and cover every borrow and execution
+ * since the pools were created. Pool settings changed here apply to every pool of the data
+ * source until its configuration is reloaded with different pool settings.</p>
+ */
+public interface PoolStatsMBean {
+
+	/**
+     * Returns the number of connections lent out to borrowers.
+     */
+	int getActiveConnections();
+
+	/**
+     * Returns the number of connections idle in the pools.
+     */
+	int getIdleConnections();
+
+	/**
+     * Returns the number of connections open or being opened.
+     */
+	int getTotalConnections();
+
+	/**
+     * Returns the number of borrowers waiting for another caller to hand a connection back.
+     */
+	int getWaitingBorrowers();
+
+	/**
+     * Returns the number of borrows that timed out waiting for a connection.
+     */
+	long getAcquireTimeouts();
+
+	double getAcquireP50Millis();
+
+	double getAcquireP99Millis();
+
+	double getAcquireP999Millis();
+
+	double getWaitP50Millis();
+
+	double getWaitP99Millis();
+
+	double getWaitP999Millis();
+
+	double getExecuteP50Millis();
+
+	double getExecuteP99Millis();
+
+	double getExecuteP999Millis();
+
+	int getMinIdle();
+
+	/**
+     * Returns the maximum number of connections of each pool.
+     */
+	int getMaxPoolSize();
+
+	/**
+     * Resizes every pool of the data source. Growing lets waiting borrowers open new
+     * connections; shrinking closes idle connections over the new size at once, and
+     * connections in use as they are handed back.
+     *
+     * @param maxPoolSize The new maximum, at least {@code 1} and at least the minimum idle count.
+     *
+     * @throws IllegalArgumentException If the size is out of range.
+     */
+	void setMaxPoolSize(int maxPoolSize);
+
+	/**
+     * Returns how long a connection may stay idle before the housekeeper closes it, in
+     * milliseconds, {@code 0} if idle connections are kept.
+     */
+	long getIdleTimeoutMs();
+
+	/**
+     * Changes how long a connection may stay idle before the housekeeper closes it. It takes
+     * effect on the next housekeeping run, and has no effect when housekeeping is off.
+     *
+     * @param idleTimeoutMs The new timeout in milliseconds, {@code 0} to keep idle connections.
+     *
+     * @throws IllegalArgumentException If the timeout is negative.
+     */
+	void setIdleTimeoutMs(long idleTimeoutMs);
+}
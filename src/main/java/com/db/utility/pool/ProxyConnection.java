@@ -0,0 +1,436 @@
+package com.db.utility.pool;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@code ProxyConnection} class is the {@link Connection} handed out by the
+ * {@link ConnectionPool}.
+ *
+ * <p>Every call is delegated to the physical connection held by the pool. Calling
+ * {@code close()} does not close the physical link; it hands the connection back to
+ * the pool instead. Once closed, the proxy rejects any further use.</p>
+ *
+ * <p>Session property setters go through the {@link SessionState} of the physical
+ * connection, which skips calls that would not change anything and remembers what the
+ * pool must reset when the connection comes back.</p>
+ *
+ * <p>Statements are wrapped in a {@link ProxyStatement} or a {@link ProxyPreparedStatement},
+ * which report their executions to the pool. When the physical connection has a
+ * {@link StatementCache}, {@code prepareStatement} calls that only specify the result set
+ * type and concurrency are served from it. Callable statements are handed out as the
+ * driver returns them.</p>
+ */
+final class ProxyConnection implements Connection {
+
+	private final ConnectionPool pool;
+	private final PoolEntry entry;
+	private final Connection delegate;
+	private List<ProxyStatement<?>> openStatements;
+	private boolean closed;
+
+	ProxyConnection(ConnectionPool pool, PoolEntry entry) {
+		this.pool = pool;
+		this.entry = entry;
+		this.delegate = entry.connection;
+	}
+
+	/**
+     * Hands the connection back to the pool. Calling it more than once has no effect.
+     * 
+     * <p>Statements the caller left open are closed first, and cached ones are put back in the
+     * statement cache. The connection goes back to the pool even if one of them fails to
+     * close, and the failure is thrown afterwards.</p>
+     */
+	@Override
+	public void close() throws SQLException {
+		if (closed)
+			return;
+
+		Object event = Events.beginClose();
+		long start = System.nanoTime();
+		SQLException failure = null;
+		if (openStatements != null) {
+			for (int i = openStatements.size() - 1; i >= 0; i--) {
+				try {
+					openStatements.get(i).close();
+				} catch (SQLException e) {
+					if (failure == null)
+						failure = e;
+					else
+						failure.addSuppressed(e);
+				}
+			}
+			openStatements = null;
+		}
+
+		closed = true;
+		long heldNanos = start - entry.lentAt;
+		pool.release(entry);
+		pool.closed(start, heldNanos, event);
+
+		if (failure != null)
+			throw failure;
+	}
+
+	void untrack(ProxyStatement<?> statement) {
+		if (openStatements != null)
+			openStatements.remove(statement);
+	}
+
+	private <S extends ProxyStatement<?>> S track(S statement) {
+		if (openStatements == null)
+			openStatements = new ArrayList<>(4);
+		openStatements.add(statement);
+		return statement;
+	}
+
+	/**
+     * Prepares a statement through the statement cache of the physical connection, reusing
+     * a cached statement for the same SQL, result set type and concurrency when there is one.
+     */
+	private PreparedStatement prepareCached(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		Connection conn = transactional();
+		StatementCache.Key key = new StatementCache.Key(sql, resultSetType, resultSetConcurrency);
+
+		PreparedStatement statement = entry.statements.take(key);
+		if (statement == null)
+			statement = conn.prepareStatement(sql, resultSetType, resultSetConcurrency);
+
+		return track(new ProxyPreparedStatement(this, pool, statement, sql, entry.statements, key));
+	}
+
+	private PreparedStatement prepared(PreparedStatement statement, String sql) {
+		return track(new ProxyPreparedStatement(this, pool, statement, sql, null, null));
+	}
+
+	private Statement statement(Statement statement) {
+		return track(new ProxyStatement<>(this, pool, statement, null));
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || delegate.isClosed();
+	}
+
+	private Connection delegate() throws SQLException {
+		if (closed)
+			throw new SQLException("Connection is closed.");
+
+		return delegate;
+	}
+
+	/**
+     * Returns the physical connection for a call that may start a transaction, which the
+     * pool then rolls back when the connection comes back.
+     */
+	private Connection transactional() throws SQLException {
+		Connection conn = delegate();
+		entry.session.markTransactionDirty();
+		return conn;
+	}
+
+	@Override
+	public Statement createStatement() throws SQLException {
+		return statement(transactional().createStatement());
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+		return statement(transactional().createStatement(resultSetType, resultSetConcurrency));
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return statement(transactional().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		if (entry.statements != null)
+			return prepareCached(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+		return prepared(transactional().prepareStatement(sql), sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		if (entry.statements != null)
+			return prepareCached(sql, resultSetType, resultSetConcurrency);
+
+		return prepared(transactional().prepareStatement(sql, resultSetType, resultSetConcurrency), sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return prepared(transactional().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		return prepared(transactional().prepareStatement(sql, autoGeneratedKeys), sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+		return prepared(transactional().prepareStatement(sql, columnIndexes), sql);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+		return prepared(transactional().prepareStatement(sql, columnNames), sql);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+		return transactional().prepareCall(sql);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return transactional().prepareCall(sql, resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return transactional().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public String nativeSQL(String sql) throws SQLException {
+		return delegate().nativeSQL(sql);
+	}
+
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+		entry.session.setAutoCommit(delegate(), autoCommit);
+	}
+
+	@Override
+	public boolean getAutoCommit() throws SQLException {
+		delegate();
+		return entry.session.getAutoCommit();
+	}
+
+	@Override
+	public void commit() throws SQLException {
+		delegate().commit();
+	}
+
+	@Override
+	public void rollback() throws SQLException {
+		delegate().rollback();
+	}
+
+	@Override
+	public void rollback(Savepoint savepoint) throws SQLException {
+		delegate().rollback(savepoint);
+	}
+
+	/**
+     * Returns the metadata of the physical connection. Its queries may start a transaction
+     * when auto-commit is off, so the connection is rolled back when it comes back.
+     */
+	@Override
+	public DatabaseMetaData getMetaData() throws SQLException {
+		return transactional().getMetaData();
+	}
+
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException {
+		entry.session.setReadOnly(delegate(), readOnly);
+	}
+
+	@Override
+	public boolean isReadOnly() throws SQLException {
+		return delegate().isReadOnly();
+	}
+
+	@Override
+	public void setCatalog(String catalog) throws SQLException {
+		entry.session.setCatalog(delegate(), catalog);
+	}
+
+	@Override
+	public String getCatalog() throws SQLException {
+		return delegate().getCatalog();
+	}
+
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException {
+		entry.session.setTransactionIsolation(delegate(), level);
+	}
+
+	@Override
+	public int getTransactionIsolation() throws SQLException {
+		return delegate().getTransactionIsolation();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return delegate().getWarnings();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		delegate().clearWarnings();
+	}
+
+	@Override
+	public Map<String, Class<?>> getTypeMap() throws SQLException {
+		return delegate().getTypeMap();
+	}
+
+	@Override
+	public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+		delegate().setTypeMap(map);
+	}
+
+	@Override
+	public void setHoldability(int holdability) throws SQLException {
+		delegate().setHoldability(holdability);
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return delegate().getHoldability();
+	}
+
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+		return transactional().setSavepoint();
+	}
+
+	@Override
+	public Savepoint setSavepoint(String name) throws SQLException {
+		return transactional().setSavepoint(name);
+	}
+
+	@Override
+	public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+		delegate().releaseSavepoint(savepoint);
+	}
+
+	@Override
+	public Clob createClob() throws SQLException {
+		return delegate().createClob();
+	}
+
+	@Override
+	public Blob createBlob() throws SQLException {
+		return delegate().createBlob();
+	}
+
+	@Override
+	public NClob createNClob() throws SQLException {
+		return delegate().createNClob();
+	}
+
+	@Override
+	public SQLXML createSQLXML() throws SQLException {
+		return delegate().createSQLXML();
+	}
+
+	@Override
+	public boolean isValid(int timeout) throws SQLException {
+		return !closed && delegate.isValid(timeout);
+	}
+
+	@Override
+	public void setClientInfo(String name, String value) throws SQLClientInfoException {
+		delegate.setClientInfo(name, value);
+	}
+
+	@Override
+	public void setClientInfo(Properties properties) throws SQLClientInfoException {
+		delegate.setClientInfo(properties);
+	}
+
+	@Override
+	public String getClientInfo(String name) throws SQLException {
+		return delegate().getClientInfo(name);
+	}
+
+	@Override
+	public Properties getClientInfo() throws SQLException {
+		return delegate().getClientInfo();
+	}
+
+	@Override
+	public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+		return delegate().createArrayOf(typeName, elements);
+	}
+
+	@Override
+	public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+		return delegate().createStruct(typeName, attributes);
+	}
+
+	@Override
+	public void setSchema(String schema) throws SQLException {
+		entry.session.setSchema(delegate(), schema);
+	}
+
+	@Override
+	public String getSchema() throws SQLException {
+		return delegate().getSchema();
+	}
+
+	/**
+     * Aborts the physical connection and evicts it from the pool.
+     */
+	@Override
+	public void abort(Executor executor) throws SQLException {
+		if (closed)
+			return;
+
+		closed = true;
+		try {
+			delegate.abort(executor);
+		} finally {
+			pool.abort(entry);
+		}
+	}
+
+	@Override
+	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+		delegate().setNetworkTimeout(executor, milliseconds);
+	}
+
+	@Override
+	public int getNetworkTimeout() throws SQLException {
+		return delegate().getNetworkTimeout();
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this))
+			return iface.cast(this);
+
+		return delegate().unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || delegate().isWrapperFor(iface);
+	}
+}
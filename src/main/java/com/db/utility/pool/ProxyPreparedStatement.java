@@ -0,0 +1,376 @@
+package com.db.utility.pool;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * The {@code ProxyPreparedStatement} class is the {@link PreparedStatement} handed out
+ * by a {@link ProxyConnection}.
+ * 
+ * <p>Every call is delegated to the physical statement, and executions are reported
+ * under the SQL the statement was prepared with. When the physical connection has a
+ * {@link StatementCache}, calling {@code close()} does not close the physical statement;
+ * it puts it back in the cache for the next caller preparing the same SQL. Once closed,
+ * the proxy rejects any further use.</p>
+ */
+final class ProxyPreparedStatement extends ProxyStatement<PreparedStatement> implements PreparedStatement {
+
+	private final StatementCache cache;
+	private final StatementCache.Key key;
+
+	/**
+     * @param cache The statement cache the physical statement goes back to, {@code null} to
+     *        close it instead.
+     */
+	ProxyPreparedStatement(ProxyConnection connection, ConnectionPool pool, PreparedStatement delegate, String sql,
+			StatementCache cache, StatementCache.Key key) {
+		super(connection, pool, delegate, sql);
+		this.cache = cache;
+		this.key = key;
+	}
+
+	/**
+     * Puts the physical statement back in the cache, or closes it when it is not cached.
+     * A statement whose settings the caller changed is closed too, so the next caller
+     * preparing the same SQL does not inherit them.
+     */
+	@Override
+	void closeDelegate(PreparedStatement statement) throws SQLException {
+		if (cache == null || settingsChanged)
+			statement.close();
+		else
+			cache.requite(key, statement);
+	}
+
+
+	@Override
+	public void addBatch() throws SQLException {
+		delegate().addBatch();
+	}
+
+	@Override
+	public void clearParameters() throws SQLException {
+		delegate().clearParameters();
+	}
+
+	@Override
+	public boolean execute() throws SQLException {
+		long start = begin();
+		try {
+			return delegate().execute();
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public long executeLargeUpdate() throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeLargeUpdate();
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		long start = begin();
+		try {
+			return track(delegate().executeQuery(), sql);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeUpdate();
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return delegate().getMetaData();
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		return delegate().getParameterMetaData();
+	}
+
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		delegate().setArray(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+		delegate().setAsciiStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		delegate().setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		delegate().setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		delegate().setBigDecimal(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+		delegate().setBinaryStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		delegate().setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		delegate().setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		delegate().setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+		delegate().setBlob(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		delegate().setBlob(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		delegate().setBoolean(parameterIndex, x);
+	}
+
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		delegate().setByte(parameterIndex, x);
+	}
+
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		delegate().setBytes(parameterIndex, x);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		delegate().setCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		delegate().setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+		delegate().setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		delegate().setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader) throws SQLException {
+		delegate().setClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		delegate().setClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		delegate().setDate(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		delegate().setDate(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		delegate().setDouble(parameterIndex, x);
+	}
+
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		delegate().setFloat(parameterIndex, x);
+	}
+
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		delegate().setInt(parameterIndex, x);
+	}
+
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		delegate().setLong(parameterIndex, x);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		delegate().setNCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		delegate().setNCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+		delegate().setNClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, NClob x) throws SQLException {
+		delegate().setNClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		delegate().setNClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setNString(int parameterIndex, String x) throws SQLException {
+		delegate().setNString(parameterIndex, x);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		delegate().setNull(parameterIndex, sqlType);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		delegate().setNull(parameterIndex, sqlType, typeName);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		delegate().setObject(parameterIndex, x);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		delegate().setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+		delegate().setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		delegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+		delegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		delegate().setRef(parameterIndex, x);
+	}
+
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		delegate().setRowId(parameterIndex, x);
+	}
+
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+		delegate().setSQLXML(parameterIndex, x);
+	}
+
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		delegate().setShort(parameterIndex, x);
+	}
+
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		delegate().setString(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		delegate().setTime(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		delegate().setTime(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		delegate().setTimestamp(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		delegate().setTimestamp(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		delegate().setURL(parameterIndex, x);
+	}
+
+	@Override
+	@Deprecated
+	@SuppressWarnings("deprecation")
+	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		delegate().setUnicodeStream(parameterIndex, x, length);
+	}
+}
@@ -0,0 +1,484 @@
+package com.db.utility.pool;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * The {@code ProxyStatement} class is the {@link Statement} handed out by a
+ * {@link ProxyConnection}, and the base of {@link ProxyPreparedStatement}.
+ * 
+ * <p>Every call is delegated to the physical statement. Executions are timed and reported
+ * to the {@link ConnectionPool} together with their SQL, and the result sets they return
+ * are wrapped in a {@link ProxyResultSet} that counts the rows fetched. Once closed, the
+ * proxy rejects any further use.</p>
+ * 
+ * <p>The connection tracks its open statements and closes those the caller left open
+ * when it goes back to the pool.</p>
+ * 
+ * @param <S> The type of the physical statement.
+ */
+class ProxyStatement<S extends Statement> implements Statement {
+
+	private final ProxyConnection connection;
+	private final ConnectionPool pool;
+	private final S delegate;
+	/** The SQL of a prepared statement, {@code null} for a plain statement. */
+	final String sql;
+	/** The SQL of the last execution, which the next result set is reported under. */
+	private String lastSql;
+	/** The first SQL added to the pending batch. */
+	private String batchSql;
+	private ProxyResultSet resultSet;
+	/** What {@link Events#beginExecute()} returned for the execution in progress. */
+	private Object event;
+	/** Whether the caller changed a statement setting, such as the fetch size or query timeout. */
+	boolean settingsChanged;
+	private boolean closed;
+
+	ProxyStatement(ProxyConnection connection, ConnectionPool pool, S delegate, String sql) {
+		this.connection = connection;
+		this.pool = pool;
+		this.delegate = delegate;
+		this.sql = sql;
+		this.lastSql = sql;
+	}
+
+	/**
+     * Closes the current result set and the physical statement. Calling it more than once
+     * has no effect.
+     */
+	@Override
+	public void close() throws SQLException {
+		if (closed)
+			return;
+
+		closed = true;
+		connection.untrack(this);
+		try {
+			closeResultSet();
+		} finally {
+			closeDelegate(delegate);
+		}
+	}
+
+	/**
+     * Closes the physical statement once the proxy is closed.
+     */
+	void closeDelegate(S statement) throws SQLException {
+		statement.close();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || delegate.isClosed();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		delegate();
+		return connection;
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this))
+			return iface.cast(this);
+
+		return delegate().unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || delegate().isWrapperFor(iface);
+	}
+
+	S delegate() throws SQLException {
+		if (closed)
+			throw new SQLException("Statement is closed.");
+
+		return delegate;
+	}
+
+	/**
+     * Starts an execution: the driver closes the current result set, so its fetch is over.
+     * 
+     * @return The start time of the execution, in {@link System#nanoTime()} units.
+     */
+	long begin() throws SQLException {
+		closeResultSet();
+		event = Events.beginExecute();
+		return System.nanoTime();
+	}
+
+	/**
+     * Reports an execution to the pool, whether it succeeded or failed.
+     */
+	void executed(String sql, long start) {
+		lastSql = sql;
+		pool.executed(sql, start, event);
+		event = null;
+	}
+
+	/**
+     * Returns the SQL a batch execution is reported under, and forgets the batch, which
+     * the driver clears once executed.
+     */
+	private String batchSql() {
+		String batch = batchSql != null ? batchSql : lastSql;
+		batchSql = null;
+		return batch;
+	}
+
+	/**
+     * Wraps a result set of this statement so its fetched rows are counted, returning the
+     * same proxy when the driver returns the same result set again.
+     */
+	ResultSet track(ResultSet rs, String sql) {
+		if (rs == null)
+			return null;
+
+		if (resultSet == null || !resultSet.wraps(rs))
+			resultSet = new ProxyResultSet(this, pool, rs, sql);
+		return resultSet;
+	}
+
+	private void closeResultSet() throws SQLException {
+		ProxyResultSet current = resultSet;
+		if (current != null) {
+			resultSet = null;
+			current.close();
+		}
+	}
+
+
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		delegate().addBatch(sql);
+		if (batchSql == null)
+			batchSql = sql;
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+		delegate().cancel();
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		delegate().clearBatch();
+		batchSql = null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		delegate().clearWarnings();
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		delegate().closeOnCompletion();
+		settingsChanged = true;
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().execute(sql);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().execute(sql, autoGeneratedKeys);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().execute(sql, columnIndexes);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().execute(sql, columnNames);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeBatch();
+		} finally {
+			executed(batchSql(), start);
+		}
+	}
+
+	@Override
+	public long[] executeLargeBatch() throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeLargeBatch();
+		} finally {
+			executed(batchSql(), start);
+		}
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeLargeUpdate(sql);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeLargeUpdate(sql, columnNames);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeLargeUpdate(sql, columnIndexes);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeLargeUpdate(sql, autoGeneratedKeys);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		long start = begin();
+		try {
+			return track(delegate().executeQuery(sql), sql);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeUpdate(sql);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeUpdate(sql, columnIndexes);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeUpdate(sql, autoGeneratedKeys);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		long start = begin();
+		try {
+			return delegate().executeUpdate(sql, columnNames);
+		} finally {
+			executed(sql, start);
+		}
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return delegate().getFetchDirection();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return delegate().getFetchSize();
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return delegate().getGeneratedKeys();
+	}
+
+	@Override
+	public long getLargeMaxRows() throws SQLException {
+		return delegate().getLargeMaxRows();
+	}
+
+	@Override
+	public long getLargeUpdateCount() throws SQLException {
+		return delegate().getLargeUpdateCount();
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return delegate().getMaxFieldSize();
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+		return delegate().getMaxRows();
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		closeResultSet();
+		return delegate().getMoreResults();
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		if (current != KEEP_CURRENT_RESULT)
+			closeResultSet();
+		else
+			resultSet = null;
+		return delegate().getMoreResults(current);
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return delegate().getQueryTimeout();
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return track(delegate().getResultSet(), lastSql);
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return delegate().getResultSetConcurrency();
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return delegate().getResultSetHoldability();
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return delegate().getResultSetType();
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return delegate().getUpdateCount();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return delegate().getWarnings();
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return delegate().isCloseOnCompletion();
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return delegate().isPoolable();
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		delegate().setCursorName(name);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		delegate().setEscapeProcessing(enable);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		delegate().setFetchDirection(direction);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		delegate().setFetchSize(rows);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setLargeMaxRows(long max) throws SQLException {
+		delegate().setLargeMaxRows(max);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+		delegate().setMaxFieldSize(max);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		delegate().setMaxRows(max);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		delegate().setPoolable(poolable);
+		settingsChanged = true;
+	}
+
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		delegate().setQueryTimeout(seconds);
+		settingsChanged = true;
+	}
+}
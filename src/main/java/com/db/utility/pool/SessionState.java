@@ -0,0 +1,154 @@
+package com.db.utility.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The {@code SessionState} class tracks the session properties of one physical
+ * connection, so the pool only resets what a borrower actually changed.
+ * 
+ * <p>It remembers the value each property had when the connection was opened and the
+ * value it has now. A setter called with the current value is a no-op, and a setter that
+ * does change something marks the property dirty. When the connection is handed back,
+ * only dirty properties are reset, and the transaction is only rolled back if the
+ * borrower created a statement or read metadata. A connection whose catalog or schema was
+ * changed from a default the driver did not report cannot be reset, and is evicted
+ * instead.</p>
+ * 
+ * <p>Every round trip saved here is one fewer per borrow. The state is only touched by
+ * the thread holding the connection.</p>
+ */
+final class SessionState {
+
+	private static final int DIRTY_AUTO_COMMIT = 1;
+	private static final int DIRTY_ISOLATION = 1 << 1;
+	private static final int DIRTY_READ_ONLY = 1 << 2;
+	private static final int DIRTY_CATALOG = 1 << 3;
+	private static final int DIRTY_SCHEMA = 1 << 4;
+
+	private final int defaultIsolation;
+	private final boolean defaultReadOnly;
+	private final String defaultCatalog;
+	private final String defaultSchema;
+
+	private boolean autoCommit;
+	private int isolation;
+	private boolean readOnly;
+	private String catalog;
+	private String schema;
+
+	private int dirty;
+	private boolean transactionDirty;
+
+	/**
+     * Reads the initial state of a connection whose auto-commit the pool already turned off.
+     * 
+     * @param readOnly Whether the pool opened the connection read-only, as for a replica.
+     */
+	SessionState(Connection conn, boolean readOnly) throws SQLException {
+		this.autoCommit = false;
+		this.defaultIsolation = this.isolation = conn.getTransactionIsolation();
+		this.defaultReadOnly = this.readOnly = readOnly;
+		this.defaultCatalog = this.catalog = conn.getCatalog();
+		this.defaultSchema = this.schema = schemaOf(conn);
+	}
+
+	private static String schemaOf(Connection conn) {
+		try {
+			return conn.getSchema();
+		} catch (SQLException | AbstractMethodError e) {
+			// drivers older than JDBC 4.1 do not know about schemas
+			return null;
+		}
+	}
+
+	void setAutoCommit(Connection conn, boolean value) throws SQLException {
+		if (value == autoCommit)
+			return;
+
+		conn.setAutoCommit(value);
+		autoCommit = value;
+		dirty |= DIRTY_AUTO_COMMIT;
+	}
+
+	boolean getAutoCommit() {
+		return autoCommit;
+	}
+
+	void setTransactionIsolation(Connection conn, int value) throws SQLException {
+		if (value == isolation)
+			return;
+
+		conn.setTransactionIsolation(value);
+		isolation = value;
+		dirty |= DIRTY_ISOLATION;
+	}
+
+	void setReadOnly(Connection conn, boolean value) throws SQLException {
+		if (value == readOnly)
+			return;
+
+		conn.setReadOnly(value);
+		readOnly = value;
+		dirty |= DIRTY_READ_ONLY;
+	}
+
+	void setCatalog(Connection conn, String value) throws SQLException {
+		if (value != null && value.equals(catalog))
+			return;
+
+		conn.setCatalog(value);
+		catalog = value;
+		dirty |= DIRTY_CATALOG;
+	}
+
+	void setSchema(Connection conn, String value) throws SQLException {
+		if (value != null && value.equals(schema))
+			return;
+
+		conn.setSchema(value);
+		schema = value;
+		dirty |= DIRTY_SCHEMA;
+	}
+
+	/**
+     * Records that the borrower may have started a transaction.
+     */
+	void markTransactionDirty() {
+		transactionDirty = true;
+	}
+
+	/**
+     * Rolls back the borrower's pending work, if any, and resets the dirty properties to the
+     * values the connection was opened with.
+     * 
+     * @return {@code false} if the borrower changed the catalog or schema and the driver
+     *         reported no default to go back to, in which case the connection must not be
+     *         lent out again.
+     */
+	boolean reset(Connection conn) throws SQLException {
+		if (transactionDirty && !autoCommit)
+			conn.rollback();
+		transactionDirty = false;
+
+		if (dirty == 0)
+			return true;
+
+		if ((dirty & DIRTY_CATALOG) != 0 && defaultCatalog == null
+				|| (dirty & DIRTY_SCHEMA) != 0 && defaultSchema == null)
+			return false;
+
+		if ((dirty & DIRTY_AUTO_COMMIT) != 0)
+			setAutoCommit(conn, false);
+		if ((dirty & DIRTY_ISOLATION) != 0)
+			setTransactionIsolation(conn, defaultIsolation);
+		if ((dirty & DIRTY_READ_ONLY) != 0)
+			setReadOnly(conn, defaultReadOnly);
+		if ((dirty & DIRTY_CATALOG) != 0)
+			setCatalog(conn, defaultCatalog);
+		if ((dirty & DIRTY_SCHEMA) != 0)
+			setSchema(conn, defaultSchema);
+		dirty = 0;
+		return true;
+	}
+}
@@ -0,0 +1,112 @@
+package com.db.utility.pool;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code StatementCache} class keeps the prepared statements of one physical
+ * connection so the same SQL is not prepared again on every borrow.
+ * 
+ * <p>Statements are keyed on their SQL text, result set type and result set concurrency.
+ * The cache only holds statements nobody is using: {@link #take} removes a statement from
+ * the cache and {@link #requite} puts it back once the caller closes it. When the cache is
+ * full, the least recently used statement is closed. A statement whose settings, such as
+ * the fetch size or query timeout, the caller changed is closed rather than cached.</p>
+ * 
+ * <p>A physical connection is used by one borrower at a time, so the cache needs no
+ * synchronization.</p>
+ */
+final class StatementCache {
+
+	private final Map<Key, PreparedStatement> idle;
+
+	StatementCache(final int maxSize) {
+		this.idle = new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+				if (size() <= maxSize)
+					return false;
+
+				closeQuietly(eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	/**
+     * Removes a cached statement for the key, if there is one.
+     * 
+     * @return The cached statement, or {@code null} if the statement must be prepared.
+     */
+	PreparedStatement take(Key key) {
+		return idle.remove(key);
+	}
+
+	/**
+     * Puts a statement the caller has finished with back in the cache, clearing its
+     * parameters and any batch the caller added but never executed.
+     */
+	void requite(Key key, PreparedStatement statement) {
+		try {
+			statement.clearParameters();
+			statement.clearBatch();
+		} catch (SQLException e) {
+			closeQuietly(statement);
+			return;
+		}
+
+		PreparedStatement previous = idle.put(key, statement);
+		if (previous != null && previous != statement)
+			closeQuietly(previous);
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException ignored) {
+			// the statement is being discarded
+		}
+	}
+
+	/**
+     * The cache key of a prepared statement.
+     */
+	static final class Key {
+
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+		private final int hash;
+
+		Key(String sql, int resultSetType, int resultSetConcurrency) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.hash = (sql.hashCode() * 31 + resultSetType) * 31 + resultSetConcurrency;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+
+			if (!(obj instanceof Key))
+				return false;
+
+			Key other = (Key) obj;
+			return resultSetType == other.resultSetType
+					&& resultSetConcurrency == other.resultSetConcurrency
+					&& sql.equals(other.sql);
+		}
+	}
+}
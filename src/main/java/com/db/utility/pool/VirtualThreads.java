@@ -0,0 +1,18 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code VirtualThreads} class tells whether the calling thread is a virtual thread.
+ * 
+ * <p>Virtual threads do not exist before Java 21, so this version always answers
+ * {@code false}. The multi-release JAR ships a Java 21 version of this class under
+ * {@code META-INF/versions/21} that asks the thread itself.</p>
+ */
+final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	static boolean isCurrent() {
+		return false;
+	}
+}
@@ -0,0 +1,162 @@
+package com.db.utility.pool;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The {@code Events} class reports what the pool does to Java Flight Recorder: connection
+ * borrows with their pool wait times, statement executions with their SQL, rows fetched,
+ * and connections handed back.
+ * 
+ * <p>This is the Java 11 version of the class, packaged under
+ * {@code META-INF/versions/11} of the multi-release JAR. A {@code begin} method creates the
+ * event and calls {@link Event#begin()} only if a recording enables it, and returns
+ * {@code null} otherwise, so the JIT removes the disabled event altogether. The matching
+ * report method calls {@link Event#end()}, and sets the fields and commits only if the
+ * event passes the threshold of the recording.</p>
+ */
+final class Events {
+
+	private Events() {
+	}
+
+	static Object beginAcquire() {
+		return begin(new ConnectionAcquire());
+	}
+
+	static void acquired(Object event, String dataSource, long waitNanos) {
+		if (event == null)
+			return;
+
+		ConnectionAcquire acquire = (ConnectionAcquire) event;
+		acquire.end();
+		if (acquire.shouldCommit()) {
+			acquire.dataSource = dataSource;
+			acquire.waitTime = waitNanos;
+			acquire.commit();
+		}
+	}
+
+	static Object beginExecute() {
+		return begin(new StatementExecute());
+	}
+
+	static void executed(Object event, String dataSource, String sql) {
+		if (event == null)
+			return;
+
+		StatementExecute execute = (StatementExecute) event;
+		execute.end();
+		if (execute.shouldCommit()) {
+			execute.dataSource = dataSource;
+			execute.sql = sql;
+			execute.commit();
+		}
+	}
+
+	static Object beginFetch() {
+		return begin(new ResultSetFetch());
+	}
+
+	static void fetched(Object event, String dataSource, String sql, long rows) {
+		if (event == null)
+			return;
+
+		ResultSetFetch fetch = (ResultSetFetch) event;
+		fetch.end();
+		if (fetch.shouldCommit()) {
+			fetch.dataSource = dataSource;
+			fetch.sql = sql;
+			fetch.rows = rows;
+			fetch.commit();
+		}
+	}
+
+	static Object beginClose() {
+		return begin(new ConnectionClose());
+	}
+
+	static void closed(Object event, String dataSource, long heldNanos) {
+		if (event == null)
+			return;
+
+		ConnectionClose close = (ConnectionClose) event;
+		close.end();
+		if (close.shouldCommit()) {
+			close.dataSource = dataSource;
+			close.holdTime = heldNanos;
+			close.commit();
+		}
+	}
+
+	private static Event begin(Event event) {
+		if (!event.isEnabled())
+			return null;
+
+		event.begin();
+		return event;
+	}
+
+	@Name("com.db.utility.ConnectionAcquire")
+	@Label("Connection Acquire")
+	@Category({ "Database", "Connection Pool" })
+	@Description("A connection borrowed from the pool, lasting as long as the borrow, waiting included")
+	static final class ConnectionAcquire extends Event {
+
+		@Label("Data Source")
+		String dataSource;
+
+		@Label("Pool Wait Time")
+		@Description("How long the borrower waited for another caller to hand a connection back")
+		@Timespan
+		long waitTime;
+	}
+
+	@Name("com.db.utility.StatementExecute")
+	@Label("Statement Execute")
+	@Category({ "Database", "Statement" })
+	@Description("A statement executed on a pooled connection")
+	static final class StatementExecute extends Event {
+
+		@Label("Data Source")
+		String dataSource;
+
+		@Label("SQL")
+		String sql;
+	}
+
+	@Name("com.db.utility.ResultSetFetch")
+	@Label("Result Set Fetch")
+	@Category({ "Database", "Statement" })
+	@Description("The rows read from a result set, lasting from its return until it is exhausted or closed")
+	static final class ResultSetFetch extends Event {
+
+		@Label("Data Source")
+		String dataSource;
+
+		@Label("SQL")
+		String sql;
+
+		@Label("Rows Fetched")
+		long rows;
+	}
+
+	@Name("com.db.utility.ConnectionClose")
+	@Label("Connection Close")
+	@Category({ "Database", "Connection Pool" })
+	@Description("A connection handed back to the pool, lasting as long as handing it back")
+	static final class ConnectionClose extends Event {
+
+		@Label("Data Source")
+		String dataSource;
+
+		@Label("Hold Time")
+		@Description("How long the borrower held the connection")
+		@Timespan
+		long holdTime;
+	}
+}
@@ -0,0 +1,17 @@
+package com.db.utility.pool;
+
+/**
+ * The {@code VirtualThreads} class tells whether the calling thread is a virtual thread.
+ * 
+ * <p>This is the Java 21 version of the class, packaged under
+ * {@code META-INF/versions/21} of the multi-release JAR.</p>
+ */
+final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	static boolean isCurrent() {
+		return Thread.currentThread().isVirtual();
+	}
+}
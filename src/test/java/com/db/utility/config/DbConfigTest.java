@@ -0,0 +1,172 @@
+package com.db.utility.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+class DbConfigTest {
+
+	private static Properties credentials(String prefix) {
+		Properties props = new Properties();
+		props.setProperty(prefix + "DB_URL", "jdbc:test:" + prefix + "db");
+		props.setProperty(prefix + "DB_USER", "sa");
+		props.setProperty(prefix + "DB_PASS", "secret");
+		return props;
+	}
+
+	@Test
+	void readsDefaults() {
+		DbConfig config = DbConfig.from(credentials(""));
+
+		assertEquals(DbConfig.DEFAULT, config.getName());
+		assertEquals("jdbc:test:db", config.getUrl());
+		assertEquals(2, config.getMinIdle());
+		assertEquals(10, config.getMaxPoolSize());
+		assertEquals(30000L, config.getAcquireTimeoutMs());
+		assertTrue(config.getFailoverUrls().isEmpty());
+		assertTrue(config.getReplicaUrls().isEmpty());
+	}
+
+	@Test
+	void listsEveryMissingRequiredKey() {
+		Properties props = new Properties();
+		props.setProperty("DB_URL", "jdbc:test:db");
+
+		ValidationReport report = DbConfig.validate(props);
+		assertFalse(report.isValid());
+		assertEquals(Arrays.asList("DB_USER", "DB_PASS"), report.getMissingKeys());
+		assertTrue(report.getDataSources().isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> DbConfig.from(props));
+	}
+
+	@Test
+	void listsEveryMalformedKey() {
+		Properties props = credentials("");
+		props.setProperty("POOL_MAX_SIZE", "ten");
+		props.setProperty("POOL_LAZY_CONNECTIONS", "yes");
+		props.setProperty("POOL_LEAK_STACK_SAMPLE_RATE", "2");
+
+		ValidationReport report = DbConfig.validate(props);
+		assertFalse(report.isValid());
+		assertEquals(3, report.getMalformedKeys().size());
+		assertTrue(report.getMalformedKeys().containsKey("POOL_MAX_SIZE"));
+		assertTrue(report.getMessage().contains("POOL_LAZY_CONNECTIONS"));
+	}
+
+	@Test
+	void smallMaxPoolSizeLowersDefaultMinIdle() {
+		Properties props = credentials("");
+		props.setProperty("POOL_MAX_SIZE", "1");
+
+		ValidationReport report = DbConfig.validate(props);
+		assertTrue(report.isValid(), report.getMessage());
+		assertEquals(1, report.getDataSources().get(DbConfig.DEFAULT).getMinIdle());
+	}
+
+	@Test
+	void rejectsMinIdleAboveMaxPoolSize() {
+		Properties props = credentials("");
+		props.setProperty("POOL_MAX_SIZE", "2");
+		props.setProperty("POOL_MIN_IDLE", "3");
+
+		assertTrue(DbConfig.validate(props).getMalformedKeys().containsKey("POOL_MIN_IDLE"));
+	}
+
+	@Test
+	void rejectsZeroBreakerProbePeriod() {
+		Properties props = credentials("");
+		props.setProperty("POOL_BREAKER_PROBE_MS", "0");
+
+		assertTrue(DbConfig.validate(props).getMalformedKeys().containsKey("POOL_BREAKER_PROBE_MS"));
+	}
+
+	@Test
+	void namedDataSourceFallsBackToUnprefixedPoolSettings() {
+		Properties props = credentials("");
+		props.putAll(credentials("orders."));
+		props.setProperty("POOL_MAX_SIZE", "5");
+		props.setProperty("POOL_ACQUIRE_TIMEOUT_MS", "100");
+		props.setProperty("orders.POOL_MAX_SIZE", "20");
+
+		Map<String, DbConfig> sources = DbConfig.dataSources(props);
+		assertEquals(2, sources.size());
+
+		DbConfig orders = sources.get("orders");
+		assertEquals("jdbc:test:orders.db", orders.getUrl());
+		assertEquals(20, orders.getMaxPoolSize());
+		assertEquals(100L, orders.getAcquireTimeoutMs());
+		assertEquals(5, sources.get(DbConfig.DEFAULT).getMaxPoolSize());
+	}
+
+	@Test
+	void namedDataSourceDoesNotInheritHostLists() {
+		Properties props = credentials("");
+		props.putAll(credentials("orders."));
+		props.setProperty("DB_FAILOVER_URLS", "jdbc:test:standby");
+		props.setProperty("DB_REPLICA_URLS", "jdbc:test:replica-1, jdbc:test:replica-2");
+
+		Map<String, DbConfig> sources = DbConfig.dataSources(props);
+		DbConfig primary = sources.get(DbConfig.DEFAULT);
+		assertEquals(Collections.singletonList("jdbc:test:standby"), primary.getFailoverUrls());
+		assertEquals(Arrays.asList("jdbc:test:replica-1", "jdbc:test:replica-2"), primary.getReplicaUrls());
+
+		DbConfig orders = sources.get("orders");
+		assertTrue(orders.getFailoverUrls().isEmpty());
+		assertTrue(orders.getReplicaUrls().isEmpty());
+	}
+
+	@Test
+	void namedDataSourceNeedsItsOwnCredentials() {
+		Properties props = credentials("");
+		props.setProperty("orders.DB_URL", "jdbc:test:orders");
+
+		ValidationReport report = DbConfig.validate(props);
+		assertEquals(Arrays.asList("orders.DB_USER", "orders.DB_PASS"), report.getMissingKeys());
+		assertEquals(Collections.singleton(DbConfig.DEFAULT), report.getDataSources().keySet());
+	}
+
+	@Test
+	void defaultDataSourceIsOptionalOnceNamedOneIsDeclared() {
+		ValidationReport report = DbConfig.validate(credentials("orders."));
+
+		assertTrue(report.isValid(), report.getMessage());
+		assertEquals(Collections.singleton("orders"), report.getDataSources().keySet());
+	}
+
+	@Test
+	void sharedMalformedKeyFailsEveryDataSourceFallingBackToIt() {
+		Properties props = credentials("");
+		props.putAll(credentials("orders."));
+		props.putAll(credentials("reports."));
+		props.setProperty("POOL_MAX_SIZE", "-1");
+		props.setProperty("reports.POOL_MAX_SIZE", "4");
+
+		ValidationReport report = DbConfig.validate(props);
+		assertFalse(report.isValid());
+		assertEquals(Collections.singleton("POOL_MAX_SIZE"), report.getMalformedKeys().keySet());
+		assertEquals(Collections.singleton("reports"), report.getDataSources().keySet());
+	}
+
+	@Test
+	void rejectsReservedDataSourceName() {
+		Properties props = credentials("");
+		props.putAll(credentials(DbConfig.DEFAULT + "."));
+
+		assertFalse(DbConfig.validate(props).isValid());
+	}
+
+	@Test
+	void rejectsEmptyProperties() {
+		assertThrows(IllegalArgumentException.class, () -> DbConfig.from(new Properties()));
+		assertThrows(IllegalArgumentException.class, () -> DbConfig.dataSources(null));
+		assertFalse(DbConfig.validate(null).isValid());
+	}
+}
@@ -0,0 +1,113 @@
+package com.db.utility.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ResUtilTest {
+
+	private final List<String> closed = new ArrayList<>();
+
+	private AutoCloseable resource(String name) {
+		return () -> closed.add(name);
+	}
+
+	private AutoCloseable failing(String name, Exception failure) {
+		return () -> {
+			closed.add(name);
+			throw failure;
+		};
+	}
+
+	@Test
+	void closesSingleResource() {
+		ResUtil.close(resource("conn"));
+
+		assertEquals(Arrays.asList("conn"), closed);
+	}
+
+	@Test
+	void closesTwoResourcesLastFirst() {
+		ResUtil.close(resource("pstm"), resource("conn"));
+
+		assertEquals(Arrays.asList("conn", "pstm"), closed);
+	}
+
+	@Test
+	void closesThreeResourcesLastFirst() {
+		ResUtil.close(resource("rs"), resource("pstm"), resource("conn"));
+
+		assertEquals(Arrays.asList("conn", "pstm", "rs"), closed);
+	}
+
+	@Test
+	void closesManyResourcesLastFirst() {
+		ResUtil.close(resource("a"), resource("b"), resource("c"), resource("d"));
+
+		assertEquals(Arrays.asList("d", "c", "b", "a"), closed);
+	}
+
+	@Test
+	void skipsNullResources() {
+		ResUtil.close((AutoCloseable) null);
+		ResUtil.close(null, resource("conn"));
+		ResUtil.close(resource("rs"), null, null);
+		ResUtil.close(null, null, null, resource("stmt"));
+
+		assertEquals(Arrays.asList("conn", "rs", "stmt"), closed);
+	}
+
+	@Test
+	void rejectsEmptyResources() {
+		assertThrows(IllegalArgumentException.class, () -> ResUtil.close(new AutoCloseable[0]));
+	}
+
+	@Test
+	void wrapsFailureOfSingleResource() {
+		Exception failure = new Exception("boom");
+
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> ResUtil.close(failing("conn", failure)));
+		assertSame(failure, thrown.getCause());
+	}
+
+	@Test
+	void closesEveryResourceDespiteFailures() {
+		Exception first = new Exception("conn");
+		Exception second = new Exception("rs");
+
+		RuntimeException thrown = assertThrows(RuntimeException.class,
+				() -> ResUtil.close(failing("rs", second), resource("pstm"), failing("conn", first)));
+		assertEquals(Arrays.asList("conn", "pstm", "rs"), closed);
+		assertSame(first, thrown.getCause());
+		assertEquals(1, thrown.getSuppressed().length);
+		assertSame(second, thrown.getSuppressed()[0]);
+	}
+
+	@Test
+	void varargsCloseReportsFirstFailureAndSuppressesTheRest() {
+		Exception first = new Exception("d");
+		Exception second = new Exception("b");
+
+		RuntimeException thrown = assertThrows(RuntimeException.class,
+				() -> ResUtil.close(resource("a"), failing("b", second), resource("c"), failing("d", first)));
+		assertEquals(Arrays.asList("d", "c", "b", "a"), closed);
+		assertSame(first, thrown.getCause());
+		assertSame(second, thrown.getSuppressed()[0]);
+	}
+
+	@Test
+	void twoResourceCloseReportsFailureOfEither() {
+		Exception failure = new Exception("pstm");
+
+		RuntimeException thrown = assertThrows(RuntimeException.class,
+				() -> ResUtil.close(failing("pstm", failure), resource("conn")));
+		assertEquals(Arrays.asList("conn", "pstm"), closed);
+		assertSame(failure, thrown.getCause());
+	}
+}
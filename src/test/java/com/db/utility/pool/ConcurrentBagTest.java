@@ -0,0 +1,138 @@
+package com.db.utility.pool;
+
+import static com.db.utility.pool.PoolEntry.STATE_IN_USE;
+import static com.db.utility.pool.PoolEntry.STATE_NOT_IN_USE;
+import static com.db.utility.pool.PoolEntry.STATE_RESERVED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentBagTest {
+
+	private FakeDriver driver;
+	private ConcurrentBag bag;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		driver = FakeDriver.register();
+		bag = new ConcurrentBag();
+	}
+
+	@AfterEach
+	void tearDown() throws SQLException {
+		driver.deregister();
+	}
+
+	/**
+     * Adds a new entry, which the calling thread keeps in use.
+     */
+	private PoolEntry add() throws SQLException {
+		PoolEntry entry = new PoolEntry(driver.connect(driver.url(), new Properties()), null, false, 0, 0);
+		bag.add(entry);
+		return entry;
+	}
+
+	@Test
+	void borrowWithoutWaitingReturnsNullWhenEmpty() throws Exception {
+		assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void borrowTimesOutWhenEveryEntryIsInUse() throws Exception {
+		add();
+
+		long start = System.nanoTime();
+		assertNull(bag.borrow(50, TimeUnit.MILLISECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(0, bag.getWaitingThreadCount());
+	}
+
+	@Test
+	void requitedEntryIsBorrowedAgain() throws Exception {
+		PoolEntry entry = add();
+		bag.requite(entry);
+		assertEquals(STATE_NOT_IN_USE, entry.getState());
+
+		assertSame(entry, bag.borrow(0, TimeUnit.MILLISECONDS));
+		assertEquals(STATE_IN_USE, entry.getState());
+		assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void entryReturnedByAnotherThreadCanBeStolen() throws Exception {
+		PoolEntry entry = add();
+		CompletableFuture.runAsync(() -> bag.requite(entry)).get();
+
+		assertSame(entry, bag.borrow(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void requiteHandsEntryToWaitingBorrower() throws Exception {
+		PoolEntry entry = add();
+		CompletableFuture<PoolEntry> borrowed = CompletableFuture.supplyAsync(() -> {
+			try {
+				return bag.borrow(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		while (bag.getWaitingThreadCount() == 0)
+			Thread.sleep(1);
+		bag.requite(entry);
+
+		assertSame(entry, borrowed.get(5, TimeUnit.SECONDS));
+		assertEquals(STATE_IN_USE, entry.getState());
+		assertEquals(0, bag.getWaitingThreadCount());
+	}
+
+	@Test
+	void reservedEntryCannotBeBorrowed() throws Exception {
+		PoolEntry entry = add();
+		assertFalse(bag.reserve(entry));
+
+		bag.requite(entry);
+		assertTrue(bag.reserve(entry));
+		assertEquals(STATE_RESERVED, entry.getState());
+		assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void removeOnlyTakesOwnedEntries() throws Exception {
+		PoolEntry entry = add();
+		bag.requite(entry);
+		assertFalse(bag.remove(entry));
+		assertEquals(1, bag.values().size());
+
+		assertTrue(bag.reserve(entry));
+		assertTrue(bag.remove(entry));
+		assertTrue(bag.values().isEmpty());
+		assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void countsEntriesByState() throws Exception {
+		PoolEntry idle = add();
+		add();
+		PoolEntry reserved = add();
+		bag.requite(idle);
+		bag.requite(reserved);
+		bag.reserve(reserved);
+
+		assertEquals(1, bag.getCount(STATE_NOT_IN_USE));
+		assertEquals(1, bag.getCount(STATE_IN_USE));
+		assertEquals(1, bag.getCount(STATE_RESERVED));
+		assertEquals(3, bag.values().size());
+	}
+}
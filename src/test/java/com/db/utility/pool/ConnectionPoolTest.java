@@ -0,0 +1,172 @@
+package com.db.utility.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.db.utility.config.DbConfig;
+
+class ConnectionPoolTest {
+
+	private FakeDriver driver;
+	private ConnectionPool pool;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		driver = FakeDriver.register();
+	}
+
+	@AfterEach
+	void tearDown() throws SQLException {
+		if (pool != null)
+			pool.shutdown();
+		driver.deregister();
+	}
+
+	private ConnectionPool pool(int maxSize, long acquireTimeoutMs) throws SQLException {
+		Properties props = driver.properties();
+		props.setProperty("POOL_MAX_SIZE", String.valueOf(maxSize));
+		props.setProperty("POOL_ACQUIRE_TIMEOUT_MS", String.valueOf(acquireTimeoutMs));
+		props.setProperty("POOL_BREAKER_THRESHOLD", "1");
+		pool = new ConnectionPool(DbConfig.from(props));
+		return pool;
+	}
+
+	@Test
+	void releasedConnectionIsBorrowedAgain() throws SQLException {
+		pool(2, 1000);
+
+		Connection first = pool.borrow();
+		assertEquals(1, pool.getActiveConnections());
+		first.close();
+		assertEquals(0, pool.getActiveConnections());
+		assertEquals(1, pool.getIdleConnections());
+
+		pool.borrow().close();
+		assertEquals(1, driver.opened.get());
+		assertEquals(0, driver.closed.get());
+		assertEquals(1, pool.getTotalConnections());
+	}
+
+	@Test
+	void borrowTimesOutWhenPoolIsExhausted() throws SQLException {
+		pool(1, 100);
+		Connection held = pool.borrow();
+
+		long start = System.nanoTime();
+		assertThrows(SQLException.class, pool::borrow);
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(1, pool.getAcquireTimeouts());
+		assertEquals(1, driver.opened.get());
+
+		held.close();
+		assertNotNull(pool.borrow());
+	}
+
+	@Test
+	void releaseHandsConnectionToWaitingBorrower() throws Exception {
+		pool(1, 5000);
+		Connection held = pool.borrow();
+
+		CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return pool.borrow();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		while (pool.getWaitingBorrowers() == 0)
+			Thread.sleep(1);
+		held.close();
+
+		assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+		assertEquals(1, driver.opened.get());
+		assertEquals(0, pool.getAcquireTimeouts());
+	}
+
+	@Test
+	void failedSessionSetupClosesConnectionAndKeepsHost() throws SQLException {
+		pool(1, 1000);
+
+		driver.failSetup = true;
+		assertThrows(SQLException.class, pool::borrow);
+		assertEquals(1, driver.opened.get());
+		assertEquals(1, driver.closed.get());
+		assertEquals(0, pool.getTotalConnections());
+
+		// the breaker trips after one failed connect, so a second borrow proves it stayed closed
+		driver.failSetup = false;
+		pool.borrow().close();
+		assertEquals(2, driver.opened.get());
+		assertTrue(pool.isAvailable());
+	}
+
+	@Test
+	void failedConnectFreesItsSlot() throws SQLException {
+		pool(1, 1000);
+
+		driver.failConnect = true;
+		assertThrows(SQLException.class, pool::borrow);
+		assertEquals(0, pool.getTotalConnections());
+	}
+
+	@Test
+	void releaseRollsBackOnlyAfterTransactionalUse() throws SQLException {
+		pool(1, 1000);
+
+		pool.borrow().close();
+		assertEquals(0, driver.rollbacks.get());
+
+		Connection conn = pool.borrow();
+		conn.prepareStatement("SELECT 1").close();
+		conn.close();
+		assertEquals(1, driver.rollbacks.get());
+
+		conn = pool.borrow();
+		conn.getMetaData();
+		conn.close();
+		assertEquals(2, driver.rollbacks.get());
+	}
+
+	@Test
+	void releaseResetsSessionProperties() throws SQLException {
+		pool(1, 1000);
+
+		Connection conn = pool.borrow();
+		conn.setAutoCommit(true);
+		conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+		conn.close();
+
+		conn = pool.borrow();
+		assertEquals(false, conn.getAutoCommit());
+		assertEquals(Connection.TRANSACTION_READ_COMMITTED, conn.getTransactionIsolation());
+		conn.close();
+		assertEquals(1, driver.opened.get());
+	}
+
+	@Test
+	void shutdownClosesIdleConnectionsAndRejectsBorrows() throws SQLException {
+		pool(2, 1000);
+		Connection held = pool.borrow();
+		pool.borrow().close();
+
+		pool.shutdown();
+		assertEquals(1, driver.closed.get());
+		assertThrows(SQLException.class, pool::borrow);
+
+		held.close();
+		assertEquals(2, driver.closed.get());
+		assertEquals(0, pool.getTotalConnections());
+	}
+}
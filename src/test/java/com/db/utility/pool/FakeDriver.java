@@ -0,0 +1,236 @@
+package com.db.utility.pool;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * The {@code FakeDriver} class is an in-process JDBC driver for tests.
+ *
+ * <p>Each instance accepts URLs starting with its own {@code jdbc:fake:<n>:} prefix, so
+ * tests do not share counters. Its connections keep their session properties in memory,
+ * count what the pool does to them, and can be told to fail connecting or setting up the
+ * session.</p>
+ */
+final class FakeDriver implements Driver {
+
+	private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+	private final String prefix = "jdbc:fake:" + INSTANCES.incrementAndGet() + ":";
+
+	final AtomicInteger opened = new AtomicInteger();
+	final AtomicInteger closed = new AtomicInteger();
+	final AtomicInteger rollbacks = new AtomicInteger();
+
+	volatile boolean failConnect;
+	volatile boolean failSetup;
+	/** The catalog and schema new connections report, {@code null} like drivers that have none. */
+	volatile String defaultCatalog;
+	volatile String defaultSchema;
+
+	private FakeDriver() {
+	}
+
+	/**
+     * Registers a new driver with {@link DriverManager}.
+     */
+	static FakeDriver register() throws SQLException {
+		FakeDriver driver = new FakeDriver();
+		DriverManager.registerDriver(driver);
+		return driver;
+	}
+
+	void deregister() throws SQLException {
+		DriverManager.deregisterDriver(this);
+	}
+
+	/**
+     * Returns the JDBC URL of a database served by this driver.
+     */
+	String url() {
+		return prefix + "db";
+	}
+
+	/**
+     * Returns the pool settings of a data source served by this driver, without
+     * background housekeeping or initial connections.
+     */
+	Properties properties() {
+		Properties props = new Properties();
+		props.setProperty("DB_URL", url());
+		props.setProperty("DB_USER", "sa");
+		props.setProperty("DB_PASS", "");
+		props.setProperty("POOL_MIN_IDLE", "0");
+		props.setProperty("POOL_HOUSEKEEPING_PERIOD_MS", "0");
+		return props;
+	}
+
+	@Override
+	public Connection connect(String url, Properties info) throws SQLException {
+		if (!acceptsURL(url))
+			return null;
+
+		if (failConnect)
+			throw new SQLException("Connection refused: " + url);
+
+		opened.incrementAndGet();
+		return new FakeConnection().proxy;
+	}
+
+	@Override
+	public boolean acceptsURL(String url) {
+		return url != null && url.startsWith(prefix);
+	}
+
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+		return new DriverPropertyInfo[0];
+	}
+
+	@Override
+	public int getMajorVersion() {
+		return 1;
+	}
+
+	@Override
+	public int getMinorVersion() {
+		return 0;
+	}
+
+	@Override
+	public boolean jdbcCompliant() {
+		return false;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+     * Returns the default value of a method's return type, for the calls a fake ignores.
+     */
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class)
+			return false;
+		if (type == int.class)
+			return 0;
+		if (type == long.class)
+			return 0L;
+		return null;
+	}
+
+	/**
+     * The session state of one fake connection.
+     */
+	private final class FakeConnection {
+
+		private boolean autoCommit = true;
+		private boolean readOnly;
+		private int isolation = Connection.TRANSACTION_READ_COMMITTED;
+		private String catalog = defaultCatalog;
+		private String schema = defaultSchema;
+		private boolean isClosed;
+
+		final Connection proxy = (Connection) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "close":
+							if (!isClosed)
+								closed.incrementAndGet();
+							isClosed = true;
+							return null;
+						case "isClosed":
+							return isClosed;
+						case "isValid":
+							return !isClosed;
+						case "setAutoCommit":
+							if (failSetup)
+								throw new SQLException("Session setup failed.");
+							autoCommit = (Boolean) args[0];
+							return null;
+						case "getAutoCommit":
+							return autoCommit;
+						case "setReadOnly":
+							readOnly = (Boolean) args[0];
+							return null;
+						case "isReadOnly":
+							return readOnly;
+						case "setTransactionIsolation":
+							isolation = (Integer) args[0];
+							return null;
+						case "getTransactionIsolation":
+							return isolation;
+						case "setCatalog":
+							catalog = (String) args[0];
+							return null;
+						case "getCatalog":
+							return catalog;
+						case "setSchema":
+							schema = (String) args[0];
+							return null;
+						case "getSchema":
+							return schema;
+						case "rollback":
+							rollbacks.incrementAndGet();
+							return null;
+						case "createStatement":
+						case "prepareStatement":
+							return statement();
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "toString":
+							return "FakeConnection[" + prefix + "]";
+						default:
+							return defaultValue(method.getReturnType());
+					}
+				});
+
+		private PreparedStatement statement() {
+			boolean[] statementClosed = { false };
+			return (PreparedStatement) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+							case "close":
+								statementClosed[0] = true;
+								return null;
+							case "isClosed":
+								return statementClosed[0];
+							case "executeQuery":
+								return resultSet();
+							case "equals":
+								return proxy == args[0];
+							case "hashCode":
+								return System.identityHashCode(proxy);
+							default:
+								return defaultValue(method.getReturnType());
+						}
+					});
+		}
+
+		private ResultSet resultSet() {
+			return (ResultSet) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(),
+					new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+							case "equals":
+								return proxy == args[0];
+							case "hashCode":
+								return System.identityHashCode(proxy);
+							default:
+								return defaultValue(method.getReturnType());
+						}
+					});
+		}
+	}
+}
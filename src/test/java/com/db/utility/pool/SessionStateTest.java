@@ -0,0 +1,147 @@
+package com.db.utility.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SessionStateTest {
+
+	private FakeDriver driver;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		driver = FakeDriver.register();
+		driver.defaultCatalog = "app";
+		driver.defaultSchema = "public";
+	}
+
+	@AfterEach
+	void tearDown() throws SQLException {
+		driver.deregister();
+	}
+
+	/**
+     * Opens a connection set up the way the pool sets up its own.
+     */
+	private Connection connect() throws SQLException {
+		Connection conn = driver.connect(driver.url(), new Properties());
+		conn.setAutoCommit(false);
+		return conn;
+	}
+
+	@Test
+	void resetRestoresChangedProperties() throws SQLException {
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		session.setAutoCommit(conn, true);
+		session.setTransactionIsolation(conn, Connection.TRANSACTION_SERIALIZABLE);
+		session.setReadOnly(conn, true);
+		session.setCatalog(conn, "other");
+		session.setSchema(conn, "audit");
+
+		assertTrue(session.reset(conn));
+		assertFalse(conn.getAutoCommit());
+		assertFalse(session.getAutoCommit());
+		assertEquals(Connection.TRANSACTION_READ_COMMITTED, conn.getTransactionIsolation());
+		assertFalse(conn.isReadOnly());
+		assertEquals("app", conn.getCatalog());
+		assertEquals("public", conn.getSchema());
+	}
+
+	@Test
+	void settersSkipUnchangedValues() throws SQLException {
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		session.setCatalog(conn, "app");
+		conn.setCatalog("changed behind the tracker");
+		session.setCatalog(conn, "app");
+		assertTrue(session.reset(conn));
+
+		// the tracker saw no change, so nothing was reset
+		assertEquals("changed behind the tracker", conn.getCatalog());
+	}
+
+	@Test
+	void rollsBackOnlyWhenTransactionDirty() throws SQLException {
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		assertTrue(session.reset(conn));
+		assertEquals(0, driver.rollbacks.get());
+
+		session.markTransactionDirty();
+		assertTrue(session.reset(conn));
+		assertEquals(1, driver.rollbacks.get());
+
+		assertTrue(session.reset(conn));
+		assertEquals(1, driver.rollbacks.get());
+	}
+
+	@Test
+	void doesNotRollBackInAutoCommitMode() throws SQLException {
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		session.setAutoCommit(conn, true);
+		session.markTransactionDirty();
+		assertTrue(session.reset(conn));
+
+		assertEquals(0, driver.rollbacks.get());
+		assertFalse(conn.getAutoCommit());
+	}
+
+	@Test
+	void keepsReadOnlyDefaultOfReplica() throws SQLException {
+		Connection conn = connect();
+		conn.setReadOnly(true);
+		SessionState session = new SessionState(conn, true);
+
+		session.setReadOnly(conn, false);
+		assertTrue(session.reset(conn));
+		assertTrue(conn.isReadOnly());
+	}
+
+	@Test
+	void cannotResetCatalogWithoutDefault() throws SQLException {
+		driver.defaultCatalog = null;
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		session.setCatalog(conn, "other");
+		assertFalse(session.reset(conn));
+	}
+
+	@Test
+	void cannotResetSchemaWithoutDefault() throws SQLException {
+		driver.defaultSchema = null;
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		session.setSchema(conn, "audit");
+		assertFalse(session.reset(conn));
+	}
+
+	@Test
+	void resetsOtherPropertiesWhenDefaultsAreUnknown() throws SQLException {
+		driver.defaultCatalog = null;
+		driver.defaultSchema = null;
+		Connection conn = connect();
+		SessionState session = new SessionState(conn, false);
+
+		session.setTransactionIsolation(conn, Connection.TRANSACTION_SERIALIZABLE);
+		assertTrue(session.reset(conn));
+		assertEquals(Connection.TRANSACTION_READ_COMMITTED, conn.getTransactionIsolation());
+		assertNull(conn.getCatalog());
+	}
+}